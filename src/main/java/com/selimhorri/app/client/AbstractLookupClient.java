@@ -0,0 +1,168 @@
+package com.selimhorri.app.client;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.selimhorri.app.exception.wrapper.DeadlineExceededException;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cache-aside lookup of a downstream resource by id. Concurrent misses on the
+ * same id are coalesced into a single remote call, and remote calls go through
+ * the circuit breaker of their service. While the breaker is open, or when the
+ * call fails, the last known value is served from the {@link StaleStore}.
+ * Slow calls may be hedged by the {@link Hedger} of the service. Ids the
+ * service answered 404 for resolve to nothing, straight from the
+ * {@link NegativeCache} while they are remembered there.
+ * Subclasses only know how to fetch a single resource from its service.
+ */
+@Slf4j
+abstract public class AbstractLookupClient<T> {
+	
+	private final Cache<Integer, T> cache;
+	private final StaleStore<T> staleStore;
+	private final NegativeCache<T> negativeCache;
+	private final CircuitBreaker circuitBreaker;
+	private final Hedger hedger;
+	private final SingleFlight<Integer, T> singleFlight = new SingleFlight<>();
+	
+	protected AbstractLookupClient(final Cache<Integer, T> cache, final StaleStore<T> staleStore, 
+			final NegativeCache<T> negativeCache, final CircuitBreaker circuitBreaker, final Hedger hedger) {
+		this.cache = cache;
+		this.staleStore = staleStore;
+		this.negativeCache = negativeCache;
+		this.circuitBreaker = circuitBreaker;
+		this.hedger = hedger;
+	}
+	
+	public T findById(final Integer id) {
+		final T cached = this.cache.getIfPresent(id);
+		if (cached != null) {
+			return cached;
+		}
+		if (this.negativeCache.isMissing(id)) {
+			return null;
+		}
+		return this.singleFlight.execute(id, () -> this.load(id));
+	}
+	
+	/**
+	 * Same lookup for the reactive enrichment path, a miss never blocks the calling thread.
+	 */
+	public Mono<T> findByIdReactive(final Integer id) {
+		final T cached = this.cache.getIfPresent(id);
+		if (cached != null) {
+			return Mono.just(cached);
+		}
+		if (this.negativeCache.isMissing(id)) {
+			return Mono.empty();
+		}
+		return Mono.deferContextual(context -> Mono.fromFuture(this.singleFlight.executeAsync(id, 
+				() -> this.loadReactive(id, RequestDeadline.from(context)))));
+	}
+	
+	public void evict(final Integer id) {
+		this.cache.invalidate(id);
+		this.negativeCache.evict(id);
+	}
+	
+	protected abstract T fetch(final Integer id);
+	
+	protected abstract Mono<T> fetchReactive(final Integer id);
+	
+	private T load(final Integer id) {
+		// a flight for this id may have completed between the miss and now
+		final T loaded = this.cache.asMap().get(id);
+		if (loaded != null) {
+			return loaded;
+		}
+		try {
+			RequestDeadline.check();
+			final T fetched = this.circuitBreaker.executeSupplier(() -> this.hedger.execute(() -> this.fetch(id)));
+			this.store(id, fetched);
+			return fetched;
+		} catch (RuntimeException e) {
+			if (isNotFound(e)) {
+				this.markMissing(id);
+				return null;
+			}
+			return this.stale(id, e).orElseThrow(() -> e);
+		}
+	}
+	
+	private CompletableFuture<T> loadReactive(final Integer id, final Optional<RequestDeadline> deadline) {
+		final T loaded = this.cache.asMap().get(id);
+		if (loaded != null) {
+			return CompletableFuture.completedFuture(loaded);
+		}
+		final Mono<T> fetched = deadline.map(RequestDeadline::isExpired).orElse(false)
+				? Mono.error(new DeadlineExceededException("Request deadline exceeded"))
+				: this.fetchHedged(id, deadline).transformDeferred(CircuitBreakerOperator.of(this.circuitBreaker));
+		return fetched
+				.doOnNext(value -> this.store(id, value))
+				.onErrorResume(e -> {
+					if (isNotFound(e)) {
+						this.markMissing(id);
+						return Mono.empty();
+					}
+					return this.stale(id, e)
+							.map(Mono::just)
+							.orElseGet(() -> Mono.error(e));
+				})
+				.toFuture();
+	}
+	
+	private Mono<T> fetchHedged(final Integer id, final Optional<RequestDeadline> deadline) {
+		final Mono<T> hedged = Mono.defer(() -> Mono.fromFuture(this.hedger.executeAsync(() -> this.fetchReactive(id)
+				.contextWrite(RequestDeadline.context(deadline))
+				.toFuture())));
+		return deadline.map(d -> hedged.timeout(d.remaining())
+						.onErrorMap(TimeoutException.class, e -> new DeadlineExceededException("Request deadline exceeded")))
+				.orElse(hedged);
+	}
+	
+	private void markMissing(final Integer id) {
+		log.debug("*** {} has no resource with id {}, remembered as missing *", this.circuitBreaker.getName(), id);
+		this.negativeCache.markMissing(id);
+	}
+	
+	private static boolean isNotFound(final Throwable e) {
+		return e instanceof HttpClientErrorException.NotFound || e instanceof WebClientResponseException.NotFound;
+	}
+	
+	private void store(final Integer id, final T fetched) {
+		if (fetched != null) {
+			this.cache.put(id, fetched);
+			this.staleStore.put(id, fetched);
+		}
+	}
+	
+	/**
+	 * Only failures the breaker counts against the service, or a spent request
+	 * deadline, are degraded to a stale value, an ignored error (e.g. a 404) is
+	 * the real answer.
+	 */
+	private Optional<T> stale(final Integer id, final Throwable e) {
+		final CircuitBreakerConfig config = this.circuitBreaker.getCircuitBreakerConfig();
+		if (!(e instanceof CallNotPermittedException || e instanceof DeadlineExceededException)
+				&& (config.getIgnoreExceptionPredicate().test(e) || !config.getRecordExceptionPredicate().test(e))) {
+			return Optional.empty();
+		}
+		final Optional<T> stale = this.staleStore.get(id);
+		stale.ifPresent(s -> log.warn("*** {} unavailable, serving stale value for id {}: {} *", 
+				this.circuitBreaker.getName(), id, e.getMessage()));
+		return stale;
+	}
+	
+}
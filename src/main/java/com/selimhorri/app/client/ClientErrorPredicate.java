@@ -0,0 +1,22 @@
+package com.selimhorri.app.client;
+
+import java.util.function.Predicate;
+
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+/**
+ * 4xx answers from a downstream, on either client. They are the service's
+ * real answer, not a sign it is failing, so the circuit breakers ignore them
+ * on the blocking and the reactive path alike.
+ */
+public class ClientErrorPredicate implements Predicate<Throwable> {
+	
+	@Override
+	public boolean test(final Throwable e) {
+		return e instanceof HttpClientErrorException
+				|| (e instanceof WebClientResponseException 
+						&& ((WebClientResponseException) e).getStatusCode().is4xxClientError());
+	}
+	
+}
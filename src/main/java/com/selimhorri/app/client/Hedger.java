@@ -0,0 +1,318 @@
+package com.selimhorri.app.client;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.selimhorri.app.config.client.HedgingProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Hedges the calls to one downstream: when a call is slower than the
+ * configured percentile of its recent latencies, the same call is sent again
+ * and the first successful answer wins, the other call is cancelled. Both
+ * calls go through the load-balanced client, so round-robin sends the
+ * duplicate to the next instance. Hedges are paid from a budget refilled by
+ * {@code budget-ratio} per call, which caps the extra load. Blocking calls
+ * run on a bounded pool: when it is full the call is simply not hedged.
+ */
+public class Hedger {
+	
+	private final HedgingProperties hedgingProperties;
+	private final ExecutorService executor;
+	private final LatencyWindow latencies;
+	private final Budget budget;
+	private final Counter sent;
+	private final Counter won;
+	private final Counter throttled;
+	private final Counter rejected;
+	
+	public Hedger(final String downstream, final HedgingProperties hedgingProperties, final ExecutorService executor, 
+			final MeterRegistry meterRegistry) {
+		this.hedgingProperties = hedgingProperties;
+		this.executor = executor;
+		this.latencies = new LatencyWindow(hedgingProperties.getWindowSize());
+		this.budget = new Budget(Math.min(1.0, hedgingProperties.getBudgetRatio()), hedgingProperties.getBudgetBurst());
+		this.sent = counter(meterRegistry, "downstream.hedge.sent", downstream, "Duplicate calls sent");
+		this.won = counter(meterRegistry, "downstream.hedge.won", downstream, "Duplicate calls answering first");
+		this.throttled = counter(meterRegistry, "downstream.hedge.throttled", downstream, 
+				"Duplicate calls skipped because the hedging budget was spent");
+		this.rejected = counter(meterRegistry, "downstream.hedge.rejected", downstream, 
+				"Calls not hedged because the hedging pool was full");
+	}
+	
+	/**
+	 * Both calls run on the pool and the caller waits for the first successful
+	 * answer, so a duplicate that wins returns at once even when the first call
+	 * is stuck in a socket read that ignores interruption. The losing call is
+	 * cancelled and holds its pool thread until its own timeout at worst.
+	 * When the pool is full the call runs unhedged on the caller thread.
+	 */
+	public <T> T execute(final Supplier<T> call) {
+		if (!this.hedgingProperties.isEnabled()) {
+			return call.get();
+		}
+		
+		final Supplier<T> withDeadline = RequestDeadline.wrap(call);
+		final CompletableFuture<T> primary;
+		try {
+			primary = this.submit(this.timed(withDeadline));
+		} catch (RejectedExecutionException e) {
+			this.rejected.increment();
+			return this.timed(call).get();
+		}
+		
+		this.budget.deposit();
+		final Race<T> race = new Race<>();
+		race.run(primary, null);
+		this.scheduleHedge(race, () -> this.submit(withDeadline));
+		
+		try {
+			return race.winner.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+	
+	public <T> CompletableFuture<T> executeAsync(final Supplier<CompletableFuture<T>> call) {
+		if (!this.hedgingProperties.isEnabled()) {
+			return call.get();
+		}
+		
+		this.budget.deposit();
+		final Race<T> race = new Race<>();
+		final long start = System.nanoTime();
+		try {
+			race.run(this.timed(call.get(), start), null);
+		} catch (RuntimeException e) {
+			race.run(CompletableFuture.failedFuture(e), null);
+		}
+		this.scheduleHedge(race, call);
+		return race.winner;
+	}
+	
+	/**
+	 * Sends the duplicate once the hedging delay is over, unless the race is
+	 * already decided, the request deadline ran out, the budget is spent or the
+	 * pool is full.
+	 */
+	private <T> void scheduleHedge(final Race<T> race, final Supplier<CompletableFuture<T>> hedge) {
+		final long delay = this.delayMillis();
+		if (delay < 0) {
+			return;
+		}
+		CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, Runnable::run).execute(RequestDeadline.wrap(() -> {
+			if (race.isDone() || RequestDeadline.current().map(RequestDeadline::isExpired).orElse(false)) {
+				return;
+			}
+			if (!this.budget.withdraw()) {
+				this.throttled.increment();
+				return;
+			}
+			final long start = System.nanoTime();
+			final CompletableFuture<T> hedged;
+			try {
+				hedged = hedge.get();
+			} catch (RejectedExecutionException e) {
+				this.rejected.increment();
+				return;
+			}
+			this.sent.increment();
+			race.run(this.timed(hedged, start), this.won::increment);
+		}));
+	}
+	
+	/**
+	 * Runs a blocking call on the pool, cancelling the returned future
+	 * interrupts it.
+	 */
+	private <T> CompletableFuture<T> submit(final Supplier<T> call) {
+		final CompletableFuture<T> result = new CompletableFuture<>();
+		final Future<?> task = this.executor.submit(() -> {
+			try {
+				result.complete(call.get());
+			} catch (Throwable e) {
+				result.completeExceptionally(e);
+			}
+		});
+		result.whenComplete((value, e) -> {
+			if (result.isCancelled()) {
+				task.cancel(true);
+			}
+		});
+		return result;
+	}
+	
+	/**
+	 * Negative while too few latencies are known to hedge.
+	 */
+	private long delayMillis() {
+		final long percentile = this.latencies.percentile(this.hedgingProperties.getPercentile(), 
+				this.hedgingProperties.getMinSamples());
+		return (percentile < 0) ? -1 : Math.max(percentile, this.hedgingProperties.getMinDelay().toMillis());
+	}
+	
+	/**
+	 * Records the latency before the call's future completes, so the next call
+	 * already sees it.
+	 */
+	private <T> Supplier<T> timed(final Supplier<T> call) {
+		return () -> {
+			final long start = System.nanoTime();
+			final T value = call.get();
+			this.latencies.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+			return value;
+		};
+	}
+	
+	private <T> CompletableFuture<T> timed(final CompletableFuture<T> call, final long start) {
+		call.whenComplete((value, e) -> {
+			if (e == null) {
+				this.latencies.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+			}
+		});
+		return call;
+	}
+	
+	private static Counter counter(final MeterRegistry meterRegistry, final String name, final String downstream, 
+			final String description) {
+		return Counter.builder(name)
+				.tag("downstream", downstream)
+				.description(description)
+				.register(meterRegistry);
+	}
+	
+	/**
+	 * First successful call completes the winner and cancels the others, it
+	 * fails only once every call did.
+	 */
+	private static final class Race<T> {
+		
+		private final CompletableFuture<T> winner = new CompletableFuture<>();
+		private final List<CompletableFuture<T>> calls = new ArrayList<>(2);
+		private int running;
+		private Throwable firstFailure;
+		
+		boolean isDone() {
+			return this.winner.isDone();
+		}
+		
+		synchronized void run(final CompletableFuture<T> call, final Runnable onWin) {
+			if (this.winner.isDone()) {
+				call.cancel(true);
+				return;
+			}
+			this.running++;
+			this.calls.add(call);
+			call.whenComplete((value, e) -> this.settle(call, value, e, onWin));
+		}
+		
+		private synchronized void settle(final CompletableFuture<T> call, final T value, final Throwable e, 
+				final Runnable onWin) {
+			this.running--;
+			if (e == null) {
+				// winner solo se completa aquí, bajo el lock: la victoria se cuenta antes de despertar al caller
+				if (!this.winner.isDone()) {
+					if (onWin != null) {
+						onWin.run();
+					}
+					this.winner.complete(value);
+					new ArrayList<>(this.calls).stream()
+							.filter(other -> other != call)
+							.forEach(other -> other.cancel(true));
+				}
+				return;
+			}
+			if (this.firstFailure == null) {
+				this.firstFailure = (e instanceof CompletionException && e.getCause() != null) ? e.getCause() : e;
+			}
+			if (this.running == 0) {
+				this.winner.completeExceptionally(this.firstFailure);
+			}
+		}
+		
+	}
+	
+	/**
+	 * Ring buffer of the latest latencies, the percentile is recomputed every
+	 * few records instead of sorting the window on every call.
+	 */
+	private static final class LatencyWindow {
+		
+		private static final int RECOMPUTE_EVERY = 32;
+		
+		private final long[] samples;
+		private int count;
+		private int next;
+		private int sinceRecompute = RECOMPUTE_EVERY;
+		private double cachedFor = -1;
+		private long cached = -1;
+		
+		LatencyWindow(final int size) {
+			this.samples = new long[size];
+		}
+		
+		synchronized void record(final long millis) {
+			this.samples[this.next] = millis;
+			this.next = (this.next + 1) % this.samples.length;
+			this.count = Math.min(this.count + 1, this.samples.length);
+			this.sinceRecompute++;
+		}
+		
+		synchronized long percentile(final double percentile, final int minSamples) {
+			if (this.count < minSamples) {
+				return -1;
+			}
+			if (this.sinceRecompute >= RECOMPUTE_EVERY || this.cachedFor != percentile) {
+				final long[] sorted = Arrays.copyOf(this.samples, this.count);
+				Arrays.sort(sorted);
+				this.cached = sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+				this.cachedFor = percentile;
+				this.sinceRecompute = 0;
+			}
+			return this.cached;
+		}
+		
+	}
+	
+	/**
+	 * Token bucket, every call deposits {@code ratio} tokens and a hedge costs one.
+	 */
+	private static final class Budget {
+		
+		private final double ratio;
+		private final double capacity;
+		private double tokens;
+		
+		Budget(final double ratio, final int burst) {
+			this.ratio = ratio;
+			this.capacity = Math.max(1, burst);
+		}
+		
+		synchronized void deposit() {
+			this.tokens = Math.min(this.capacity, this.tokens + this.ratio);
+		}
+		
+		synchronized boolean withdraw() {
+			if (this.tokens < 1.0) {
+				return false;
+			}
+			this.tokens -= 1.0;
+			return true;
+		}
+		
+	}
+	
+}
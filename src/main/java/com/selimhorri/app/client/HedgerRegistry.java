@@ -0,0 +1,72 @@
+package com.selimhorri.app.client;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.sleuth.instrument.async.TraceableExecutorService;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.config.client.HedgingProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * One {@link Hedger} per downstream, so every service is hedged against its
+ * own latency distribution. Blocking calls, first attempts and duplicates,
+ * share a pool of at most {@code app.hedging.max-threads} threads without a
+ * queue; a call that finds it full is not hedged. The pool carries the Sleuth
+ * trace context of the submitting thread.
+ */
+@Component
+public class HedgerRegistry implements DisposableBean {
+	
+	private final HedgingProperties hedgingProperties;
+	private final MeterRegistry meterRegistry;
+	private final ThreadPoolExecutor executor;
+	private final ExecutorService tracedExecutor;
+	private final ConcurrentMap<String, Hedger> hedgers = new ConcurrentHashMap<>();
+	
+	@Autowired
+	public HedgerRegistry(final HedgingProperties hedgingProperties, final MeterRegistry meterRegistry, 
+			final BeanFactory beanFactory) {
+		this.hedgingProperties = hedgingProperties;
+		this.meterRegistry = meterRegistry;
+		final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("hedging-");
+		threadFactory.setDaemon(true);
+		this.executor = new ThreadPoolExecutor(0, hedgingProperties.getMaxThreads(), 
+				60L, TimeUnit.SECONDS, 
+				new SynchronousQueue<>(), 
+				threadFactory, 
+				new ThreadPoolExecutor.AbortPolicy());
+		this.tracedExecutor = (beanFactory == null)
+				? this.executor
+				: new TraceableExecutorService(beanFactory, this.executor, "hedging");
+	}
+	
+	/**
+	 * Without a bean factory there is no tracer to propagate, used outside a
+	 * Spring context.
+	 */
+	public HedgerRegistry(final HedgingProperties hedgingProperties, final MeterRegistry meterRegistry) {
+		this(hedgingProperties, meterRegistry, null);
+	}
+	
+	public Hedger hedger(final String downstream) {
+		return this.hedgers.computeIfAbsent(downstream, 
+				name -> new Hedger(name, this.hedgingProperties, this.tracedExecutor, this.meterRegistry));
+	}
+	
+	@Override
+	public void destroy() {
+		this.executor.shutdown();
+	}
+	
+}
@@ -0,0 +1,30 @@
+package com.selimhorri.app.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+/**
+ * Ids the service answered 404 for, remembered for a short time so known
+ * missing resources are not asked for again on every read. Typed by the
+ * resource it records ids of, so every client gets its own bean.
+ */
+public class NegativeCache<T> {
+	
+	private final Cache<Integer, Boolean> cache;
+	
+	public NegativeCache(final Cache<Integer, Boolean> cache) {
+		this.cache = cache;
+	}
+	
+	public boolean isMissing(final Integer id) {
+		return this.cache.getIfPresent(id) != null;
+	}
+	
+	public void markMissing(final Integer id) {
+		this.cache.put(id, Boolean.TRUE);
+	}
+	
+	public void evict(final Integer id) {
+		this.cache.invalidate(id);
+	}
+	
+}
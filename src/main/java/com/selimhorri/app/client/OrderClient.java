@@ -0,0 +1,49 @@
+package com.selimhorri.app.client;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.dto.OrderDto;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Orders are cached per orderId and evicted whenever one of their items is written.
+ */
+@Component
+public class OrderClient extends AbstractLookupClient<OrderDto> {
+	
+	public static final String DOWNSTREAM = "orderService";
+	
+	private final RestTemplate restTemplate;
+	private final WebClient webClient;
+	
+	public OrderClient(final RestTemplate restTemplate, final WebClient.Builder webClientBuilder, 
+			final Cache<Integer, OrderDto> orderCache, final StaleStore<OrderDto> staleOrderStore, 
+			final NegativeCache<OrderDto> missingOrderCache, 
+			final CircuitBreakerRegistry circuitBreakerRegistry, final HedgerRegistry hedgerRegistry) {
+		super(orderCache, staleOrderStore, missingOrderCache, circuitBreakerRegistry.circuitBreaker(DOWNSTREAM), 
+				hedgerRegistry.hedger(DOWNSTREAM));
+		this.restTemplate = restTemplate;
+		this.webClient = webClientBuilder.build();
+	}
+	
+	@Override
+	protected OrderDto fetch(final Integer orderId) {
+		return this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL
+				+ "/" + orderId, OrderDto.class);
+	}
+	
+	@Override
+	protected Mono<OrderDto> fetchReactive(final Integer orderId) {
+		return this.webClient.get()
+				.uri(AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/" + orderId)
+				.retrieve()
+				.bodyToMono(OrderDto.class);
+	}
+	
+}
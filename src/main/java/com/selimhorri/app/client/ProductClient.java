@@ -0,0 +1,50 @@
+package com.selimhorri.app.client;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.dto.ProductDto;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Product metadata barely changes, so lookups are served from the local
+ * cache and only go to product-service on a miss.
+ */
+@Component
+public class ProductClient extends AbstractLookupClient<ProductDto> {
+	
+	public static final String DOWNSTREAM = "productService";
+	
+	private final RestTemplate restTemplate;
+	private final WebClient webClient;
+	
+	public ProductClient(final RestTemplate restTemplate, final WebClient.Builder webClientBuilder, 
+			final Cache<Integer, ProductDto> productCache, final StaleStore<ProductDto> staleProductStore, 
+			final NegativeCache<ProductDto> missingProductCache, 
+			final CircuitBreakerRegistry circuitBreakerRegistry, final HedgerRegistry hedgerRegistry) {
+		super(productCache, staleProductStore, missingProductCache, circuitBreakerRegistry.circuitBreaker(DOWNSTREAM), 
+				hedgerRegistry.hedger(DOWNSTREAM));
+		this.restTemplate = restTemplate;
+		this.webClient = webClientBuilder.build();
+	}
+	
+	@Override
+	protected ProductDto fetch(final Integer productId) {
+		return this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL
+				+ "/" + productId, ProductDto.class);
+	}
+	
+	@Override
+	protected Mono<ProductDto> fetchReactive(final Integer productId) {
+		return this.webClient.get()
+				.uri(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/" + productId)
+				.retrieve()
+				.bodyToMono(ProductDto.class);
+	}
+	
+}
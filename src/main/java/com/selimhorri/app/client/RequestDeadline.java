@@ -0,0 +1,108 @@
+package com.selimhorri.app.client;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import com.selimhorri.app.exception.wrapper.DeadlineExceededException;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Time budget of the request being served, bound to the request thread by the
+ * deadline filter. Downstream calls shrink their timeouts to what is left of it
+ * and forward it in the {@value #HEADER} header (remaining milliseconds).
+ * Work handed to other threads must be wrapped to carry it along, the reactive
+ * path carries it in the Reactor context instead.
+ */
+public final class RequestDeadline {
+	
+	public static final String HEADER = "X-Request-Timeout";
+	
+	private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+	private static final String CONTEXT_KEY = RequestDeadline.class.getName();
+	
+	private final long deadlineNanos;
+	private volatile boolean partial;
+	
+	private RequestDeadline(final Duration budget) {
+		this.deadlineNanos = System.nanoTime() + budget.toNanos();
+	}
+	
+	public static RequestDeadline start(final Duration budget) {
+		final RequestDeadline deadline = new RequestDeadline(budget);
+		CURRENT.set(deadline);
+		return deadline;
+	}
+	
+	public static void clear() {
+		CURRENT.remove();
+	}
+	
+	public static Optional<RequestDeadline> current() {
+		return Optional.ofNullable(CURRENT.get());
+	}
+	
+	/**
+	 * Fails fast instead of starting a downstream call that cannot finish in time.
+	 */
+	public static void check() {
+		if (current().map(RequestDeadline::isExpired).orElse(false)) {
+			throw new DeadlineExceededException("Request deadline exceeded");
+		}
+	}
+	
+	public static boolean isCurrentPartial() {
+		return current().map(RequestDeadline::isPartial).orElse(false);
+	}
+	
+	public static <T> Supplier<T> wrap(final Supplier<T> task) {
+		final RequestDeadline deadline = CURRENT.get();
+		return () -> {
+			final RequestDeadline previous = CURRENT.get();
+			CURRENT.set(deadline);
+			try {
+				return task.get();
+			} finally {
+				CURRENT.set(previous);
+			}
+		};
+	}
+	
+	public static Runnable wrap(final Runnable task) {
+		final Supplier<Void> wrapped = wrap(() -> {
+			task.run();
+			return null;
+		});
+		return wrapped::get;
+	}
+	
+	public static Context context(final Optional<RequestDeadline> deadline) {
+		return deadline.map(d -> Context.of(CONTEXT_KEY, d)).orElse(Context.empty());
+	}
+	
+	public static Optional<RequestDeadline> from(final ContextView context) {
+		return context.getOrEmpty(CONTEXT_KEY);
+	}
+	
+	public Duration remaining() {
+		return Duration.ofNanos(Math.max(0L, this.deadlineNanos - System.nanoTime()));
+	}
+	
+	public boolean isExpired() {
+		return this.deadlineNanos - System.nanoTime() <= 0;
+	}
+	
+	/**
+	 * Set when a lookup was skipped or abandoned because the budget ran out.
+	 */
+	public void markPartial() {
+		this.partial = true;
+	}
+	
+	public boolean isPartial() {
+		return this.partial;
+	}
+	
+}
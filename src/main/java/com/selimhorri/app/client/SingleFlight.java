@@ -0,0 +1,80 @@
+package com.selimhorri.app.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller runs the call,
+ * every caller arriving while it is in flight waits for and shares its outcome.
+ */
+public class SingleFlight<K, V> {
+	
+	private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+	
+	public V execute(final K key, final Supplier<V> call) {
+		
+		final CompletableFuture<V> flight = new CompletableFuture<>();
+		final CompletableFuture<V> leader = this.inFlight.putIfAbsent(key, flight);
+		if (leader != null) {
+			return join(leader);
+		}
+		
+		try {
+			final V value = call.get();
+			flight.complete(value);
+			return value;
+		} catch (RuntimeException e) {
+			flight.completeExceptionally(e);
+			throw e;
+		} finally {
+			this.inFlight.remove(key, flight);
+		}
+	}
+	
+	/**
+	 * Non-blocking variant, callers get a copy of the shared future so that
+	 * cancelling one of them does not cancel the call for everybody.
+	 */
+	public CompletableFuture<V> executeAsync(final K key, final Supplier<CompletableFuture<V>> call) {
+		
+		final CompletableFuture<V> flight = new CompletableFuture<>();
+		final CompletableFuture<V> leader = this.inFlight.putIfAbsent(key, flight);
+		if (leader != null) {
+			return leader.copy();
+		}
+		
+		try {
+			call.get().whenComplete((value, e) -> {
+				this.inFlight.remove(key, flight);
+				if (e != null) {
+					flight.completeExceptionally(e);
+				} else {
+					flight.complete(value);
+				}
+			});
+		} catch (RuntimeException e) {
+			this.inFlight.remove(key, flight);
+			flight.completeExceptionally(e);
+		}
+		return flight.copy();
+	}
+	
+	public int inFlight() {
+		return this.inFlight.size();
+	}
+	
+	private static <V> V join(final CompletableFuture<V> flight) {
+		try {
+			return flight.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+	
+}
@@ -0,0 +1,28 @@
+package com.selimhorri.app.client;
+
+import java.util.Optional;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+/**
+ * Last known value of every resource successfully fetched from its service.
+ * Unlike the lookup cache it is never evicted on writes, it is only read when
+ * the service cannot be reached.
+ */
+public class StaleStore<T> {
+	
+	private final Cache<Integer, T> cache;
+	
+	public StaleStore(final Cache<Integer, T> cache) {
+		this.cache = cache;
+	}
+	
+	public void put(final Integer id, final T value) {
+		this.cache.put(id, value);
+	}
+	
+	public Optional<T> get(final Integer id) {
+		return Optional.ofNullable(this.cache.getIfPresent(id));
+	}
+	
+}
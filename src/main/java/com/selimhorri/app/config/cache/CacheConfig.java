@@ -0,0 +1,85 @@
+package com.selimhorri.app.config.cache;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.selimhorri.app.client.NegativeCache;
+import com.selimhorri.app.client.StaleStore;
+import com.selimhorri.app.config.cache.LookupCacheProperties.CacheSpec;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.ProductDto;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Size bounded (W-TinyLFU) lookup caches, exported as cache.* meters tagged by cache name.
+ */
+@Configuration
+@EnableConfigurationProperties(LookupCacheProperties.class)
+public class CacheConfig {
+	
+	@Bean
+	public Cache<Integer, ProductDto> productCacheBean(final LookupCacheProperties lookupCacheProperties, 
+			final MeterRegistry meterRegistry) {
+		final Cache<Integer, ProductDto> productCache = build(lookupCacheProperties.getProduct());
+		return monitor(meterRegistry, productCache, "products");
+	}
+	
+	@Bean
+	public Cache<Integer, OrderDto> orderCacheBean(final LookupCacheProperties lookupCacheProperties, 
+			final MeterRegistry meterRegistry) {
+		final Cache<Integer, OrderDto> orderCache = build(lookupCacheProperties.getOrder());
+		return monitor(meterRegistry, orderCache, "orders");
+	}
+	
+	@Bean
+	public StaleStore<ProductDto> staleProductStoreBean(final LookupCacheProperties lookupCacheProperties, 
+			final MeterRegistry meterRegistry) {
+		final Cache<Integer, ProductDto> staleProductCache = build(lookupCacheProperties.getStale());
+		return new StaleStore<>(monitor(meterRegistry, staleProductCache, "products-stale"));
+	}
+	
+	@Bean
+	public StaleStore<OrderDto> staleOrderStoreBean(final LookupCacheProperties lookupCacheProperties, 
+			final MeterRegistry meterRegistry) {
+		final Cache<Integer, OrderDto> staleOrderCache = build(lookupCacheProperties.getStale());
+		return new StaleStore<>(monitor(meterRegistry, staleOrderCache, "orders-stale"));
+	}
+	
+	@Bean
+	public NegativeCache<ProductDto> missingProductCacheBean(final LookupCacheProperties lookupCacheProperties, 
+			final MeterRegistry meterRegistry) {
+		final Cache<Integer, Boolean> missingProductCache = build(lookupCacheProperties.getMissing());
+		return new NegativeCache<>(monitor(meterRegistry, missingProductCache, "products-missing"));
+	}
+	
+	@Bean
+	public NegativeCache<OrderDto> missingOrderCacheBean(final LookupCacheProperties lookupCacheProperties, 
+			final MeterRegistry meterRegistry) {
+		final Cache<Integer, Boolean> missingOrderCache = build(lookupCacheProperties.getMissing());
+		return new NegativeCache<>(monitor(meterRegistry, missingOrderCache, "orders-missing"));
+	}
+	
+	private static <K, V> Cache<K, V> build(final CacheSpec cacheSpec) {
+		return Caffeine.newBuilder()
+				.maximumSize(cacheSpec.getMaximumSize())
+				.expireAfterWrite(cacheSpec.getExpireAfterWrite())
+				.recordStats()
+				.build();
+	}
+	
+	private static <K, V> Cache<K, V> monitor(final MeterRegistry meterRegistry, final Cache<K, V> cache, 
+			final String cacheName) {
+		Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+				.tag("cache", cacheName)
+				.description("The ratio of cache lookups that were hits")
+				.register(meterRegistry);
+		return CaffeineCacheMetrics.monitor(meterRegistry, cache, cacheName);
+	}
+	
+}
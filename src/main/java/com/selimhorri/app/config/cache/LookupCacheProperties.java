@@ -0,0 +1,30 @@
+package com.selimhorri.app.config.cache;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@ConfigurationProperties(prefix = "app.cache")
+@Data
+public class LookupCacheProperties {
+	
+	private CacheSpec product = new CacheSpec(10_000L, Duration.ofMinutes(10));
+	private CacheSpec order = new CacheSpec(10_000L, Duration.ofMinutes(2));
+	private CacheSpec stale = new CacheSpec(50_000L, Duration.ofHours(24));
+	private CacheSpec missing = new CacheSpec(10_000L, Duration.ofSeconds(30));
+	
+	@NoArgsConstructor
+	@AllArgsConstructor
+	@Data
+	public static class CacheSpec {
+		
+		private long maximumSize;
+		private Duration expireAfterWrite;
+		
+	}
+	
+}
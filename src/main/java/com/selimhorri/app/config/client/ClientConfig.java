@@ -1,24 +1,132 @@
 package com.selimhorri.app.config.client;
 
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.selimhorri.app.client.ClientErrorPredicate;
+import com.selimhorri.app.client.OrderClient;
+import com.selimhorri.app.client.ProductClient;
+import com.selimhorri.app.client.RequestDeadline;
+
+import io.github.resilience4j.common.circuitbreaker.configuration.CircuitBreakerConfigCustomizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.netty.channel.ChannelOption;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @Configuration
+@EnableConfigurationProperties({ HttpClientProperties.class, HedgingProperties.class })
 public class ClientConfig {
-
+	
+	/**
+	 * Shared keep-alive pool for product-service and order-service calls,
+	 * exported as httpcomponents.httpclient.pool.* meters.
+	 */
+	@Bean
+	public PoolingHttpClientConnectionManager connectionManagerBean(final HttpClientProperties httpClientProperties, 
+			final MeterRegistry meterRegistry) {
+		final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+				httpClientProperties.getTimeToLive().toMillis(), TimeUnit.MILLISECONDS);
+		connectionManager.setMaxTotal(httpClientProperties.getMaxTotal());
+		connectionManager.setDefaultMaxPerRoute(httpClientProperties.getMaxPerRoute());
+		connectionManager.setValidateAfterInactivity((int) httpClientProperties.getValidateAfterInactivity().toMillis());
+		new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "downstream").bindTo(meterRegistry);
+		return connectionManager;
+	}
+	
+	@Bean
+	public CloseableHttpClient httpClientBean(final PoolingHttpClientConnectionManager connectionManager, 
+			final HttpClientProperties httpClientProperties) {
+		final long maxKeepAlive = httpClientProperties.getKeepAlive().toMillis();
+		final ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+			final long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+			return (keepAlive > 0) ? Math.min(keepAlive, maxKeepAlive) : maxKeepAlive;
+		};
+		return HttpClients.custom()
+				.setConnectionManager(connectionManager)
+				.setKeepAliveStrategy(keepAliveStrategy)
+				.evictExpiredConnections()
+				.evictIdleConnections(httpClientProperties.getMaxIdleTime().toMillis(), TimeUnit.MILLISECONDS)
+				.build();
+	}
+	
 	@LoadBalanced
 	@Bean
-	public RestTemplate restTemplateBean() {
-		SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-		// Timeout de conexión: 5 segundos
-		factory.setConnectTimeout(5000);
-		// Timeout de lectura: 10 segundos
-		factory.setReadTimeout(10000);
-
-		return new RestTemplate(factory);
+	public RestTemplate restTemplateBean(final CloseableHttpClient httpClient, 
+			final HttpClientProperties httpClientProperties) {
+		// Los timeouts se recortan al presupuesto restante de la request (X-Request-Timeout)
+		final HttpComponentsClientHttpRequestFactory factory = new DeadlineAwareRequestFactory(httpClient);
+		// Timeout de conexión (app.http-client.connect-timeout)
+		factory.setConnectTimeout((int) httpClientProperties.getConnectTimeout().toMillis());
+		// Timeout de lectura (app.http-client.read-timeout)
+		factory.setReadTimeout((int) httpClientProperties.getReadTimeout().toMillis());
+		// Espera máxima por una conexión libre del pool
+		factory.setConnectionRequestTimeout((int) httpClientProperties.getConnectionRequestTimeout().toMillis());
+		
+		final RestTemplate restTemplate = new RestTemplate(factory);
+		restTemplate.getInterceptors().add((request, body, execution) -> {
+			RequestDeadline.current().ifPresent(deadline -> request.getHeaders()
+					.set(RequestDeadline.HEADER, String.valueOf(deadline.remaining().toMillis())));
+			return execution.execute(request, body);
+		});
+		return restTemplate;
 	}
-
+	
+	/**
+	 * Load-balanced builder for the reactive enrichment path, lookups share
+	 * a small Netty event-loop instead of holding one thread per call.
+	 */
+	@LoadBalanced
+	@Bean
+	public WebClient.Builder webClientBuilderBean(final HttpClientProperties httpClientProperties) {
+		final ConnectionProvider connectionProvider = ConnectionProvider.builder("downstream")
+				.maxConnections(httpClientProperties.getMaxTotal())
+				.pendingAcquireTimeout(httpClientProperties.getConnectionRequestTimeout())
+				.maxIdleTime(httpClientProperties.getMaxIdleTime())
+				.maxLifeTime(httpClientProperties.getTimeToLive())
+				.build();
+		final HttpClient httpClient = HttpClient.create(connectionProvider)
+				.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) httpClientProperties.getConnectTimeout().toMillis())
+				.responseTimeout(httpClientProperties.getReadTimeout());
+		return WebClient.builder()
+				.clientConnector(new ReactorClientHttpConnector(httpClient))
+				.filter((request, next) -> Mono.deferContextual(context -> next.exchange(RequestDeadline.from(context)
+						.map(deadline -> ClientRequest.from(request)
+								.header(RequestDeadline.HEADER, String.valueOf(deadline.remaining().toMillis()))
+								.build())
+						.orElse(request))));
+	}
+	
+	/**
+	 * 4xx answers do not count against either breaker, whichever client made
+	 * the call. resilience4j 1.7 has no property for an ignore predicate.
+	 */
+	@Bean
+	public CircuitBreakerConfigCustomizer productServiceBreakerCustomizerBean() {
+		return CircuitBreakerConfigCustomizer.of(ProductClient.DOWNSTREAM, 
+				builder -> builder.ignoreException(new ClientErrorPredicate()));
+	}
+	
+	@Bean
+	public CircuitBreakerConfigCustomizer orderServiceBreakerCustomizerBean() {
+		return CircuitBreakerConfigCustomizer.of(OrderClient.DOWNSTREAM, 
+				builder -> builder.ignoreException(new ClientErrorPredicate()));
+	}
+	
 }
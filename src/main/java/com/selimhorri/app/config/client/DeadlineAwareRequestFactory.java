@@ -0,0 +1,40 @@
+package com.selimhorri.app.config.client;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import com.selimhorri.app.client.RequestDeadline;
+
+/**
+ * Caps the connect, connection request and read timeouts of every call to the
+ * budget left in the {@link RequestDeadline} of the current request.
+ */
+public class DeadlineAwareRequestFactory extends HttpComponentsClientHttpRequestFactory {
+	
+	public DeadlineAwareRequestFactory(final HttpClient httpClient) {
+		super(httpClient);
+	}
+	
+	@Override
+	protected RequestConfig createRequestConfig(final Object client) {
+		final RequestConfig requestConfig = super.createRequestConfig(client);
+		return RequestDeadline.current()
+				.map(deadline -> {
+					final int remaining = (int) Math.max(1L, Math.min(Integer.MAX_VALUE, deadline.remaining().toMillis()));
+					final RequestConfig base = (requestConfig != null) ? requestConfig : RequestConfig.DEFAULT;
+					return RequestConfig.copy(base)
+							.setConnectTimeout(cap(base.getConnectTimeout(), remaining))
+							.setConnectionRequestTimeout(cap(base.getConnectionRequestTimeout(), remaining))
+							.setSocketTimeout(cap(base.getSocketTimeout(), remaining))
+							.build();
+				})
+				.orElse(requestConfig);
+	}
+	
+	private static int cap(final int timeout, final int remaining) {
+		// 0 o negativo: sin timeout configurado
+		return (timeout > 0) ? Math.min(timeout, remaining) : remaining;
+	}
+	
+}
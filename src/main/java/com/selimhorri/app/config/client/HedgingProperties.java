@@ -0,0 +1,42 @@
+package com.selimhorri.app.config.client;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.hedging")
+@Data
+public class HedgingProperties {
+	
+	private boolean enabled = false;
+	
+	/**
+	 * A duplicate call is sent once the first one has been running longer than
+	 * this percentile of the recent latencies of the same downstream.
+	 */
+	private double percentile = 0.95;
+	private Duration minDelay = Duration.ofMillis(10);
+	
+	/**
+	 * Number of recent latencies the percentile is computed over, no call is
+	 * hedged before {@code min-samples} of them are known.
+	 */
+	private int windowSize = 512;
+	private int minSamples = 50;
+	
+	/**
+	 * Hedges allowed per call, capped at 1.0 so the load is never more than doubled.
+	 */
+	private double budgetRatio = 0.1;
+	private int budgetBurst = 10;
+	
+	/**
+	 * Blocking calls, first attempts and duplicates, running at once on the
+	 * hedging pool across every downstream; a call over the limit runs
+	 * unhedged on the caller thread.
+	 */
+	private int maxThreads = 64;
+	
+}
@@ -0,0 +1,28 @@
+package com.selimhorri.app.config.client;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.http-client")
+@Data
+public class HttpClientProperties {
+	
+	private int maxTotal = 200;
+	private int maxPerRoute = 50;
+	
+	/**
+	 * Upper bound for reusing a connection when the server sends no (or a longer) Keep-Alive.
+	 */
+	private Duration keepAlive = Duration.ofSeconds(30);
+	private Duration maxIdleTime = Duration.ofSeconds(30);
+	private Duration timeToLive = Duration.ofMinutes(5);
+	private Duration validateAfterInactivity = Duration.ofSeconds(2);
+	
+	private Duration connectTimeout = Duration.ofSeconds(5);
+	private Duration readTimeout = Duration.ofSeconds(10);
+	private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+	
+}
@@ -0,0 +1,20 @@
+package com.selimhorri.app.config.deadline;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(DeadlineProperties.class)
+public class DeadlineConfig {
+	
+	@Bean
+	public FilterRegistrationBean<DeadlineFilter> deadlineFilterBean(final DeadlineProperties deadlineProperties) {
+		final FilterRegistrationBean<DeadlineFilter> registration = 
+				new FilterRegistrationBean<>(new DeadlineFilter(deadlineProperties));
+		registration.addUrlPatterns("/api/*");
+		return registration;
+	}
+	
+}
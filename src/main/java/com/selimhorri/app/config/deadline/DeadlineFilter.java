@@ -0,0 +1,54 @@
+package com.selimhorri.app.config.deadline;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.selimhorri.app.client.RequestDeadline;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Starts the {@link RequestDeadline} of every API request, from the
+ * X-Request-Timeout header (milliseconds) when the caller sends one.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class DeadlineFilter extends OncePerRequestFilter {
+	
+	private final DeadlineProperties deadlineProperties;
+	
+	@Override
+	protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response, 
+			final FilterChain filterChain) throws ServletException, IOException {
+		RequestDeadline.start(this.budget(request.getHeader(RequestDeadline.HEADER)));
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			RequestDeadline.clear();
+		}
+	}
+	
+	private Duration budget(final String header) {
+		if (header == null || header.isBlank()) {
+			return this.deadlineProperties.getDefaultTimeout();
+		}
+		try {
+			final Duration requested = Duration.ofMillis(Math.max(0L, Long.parseLong(header.trim())));
+			return (requested.compareTo(this.deadlineProperties.getMaxTimeout()) > 0)
+					? this.deadlineProperties.getMaxTimeout()
+					: requested;
+		} catch (NumberFormatException e) {
+			log.warn("*** Invalid {} header: {} *", RequestDeadline.HEADER, header);
+			return this.deadlineProperties.getDefaultTimeout();
+		}
+	}
+	
+}
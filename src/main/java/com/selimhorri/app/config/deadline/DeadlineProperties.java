@@ -0,0 +1,23 @@
+package com.selimhorri.app.config.deadline;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.deadline")
+@Data
+public class DeadlineProperties {
+	
+	/**
+	 * Budget of a request that does not send the X-Request-Timeout header.
+	 */
+	private Duration defaultTimeout = Duration.ofSeconds(30);
+	
+	/**
+	 * Upper bound for the budget a caller may ask for.
+	 */
+	private Duration maxTimeout = Duration.ofSeconds(60);
+	
+}
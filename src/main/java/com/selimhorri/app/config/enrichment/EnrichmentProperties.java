@@ -0,0 +1,72 @@
+package com.selimhorri.app.config.enrichment;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.selimhorri.app.service.enrichment.Expand;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@ConfigurationProperties(prefix = "app.enrichment")
+@Data
+public class EnrichmentProperties {
+	
+	/**
+	 * Pool running product-service lookups on the blocking path.
+	 */
+	private BulkheadSpec productBulkhead = new BulkheadSpec(16, 256);
+	
+	/**
+	 * Pool running order-service lookups on the blocking path.
+	 */
+	private BulkheadSpec orderBulkhead = new BulkheadSpec(16, 256);
+	
+	/**
+	 * {@code blocking} runs lookups on the enrichment pool, {@code reactive}
+	 * runs them on the load-balanced WebClient.
+	 */
+	private Mode mode = Mode.BLOCKING;
+	
+	/**
+	 * Maximum number of lookups in flight per request on the reactive path.
+	 */
+	private int reactiveConcurrency = 256;
+	
+	/**
+	 * Expansions applied when a read does not pass {@code expand} explicitly,
+	 * same syntax as the query parameter ({@code product,order} or {@code none}).
+	 */
+	private Set<Expand> defaultExpand = EnumSet.allOf(Expand.class);
+	
+	public Set<Expand> getDefaultExpand() {
+		return this.defaultExpand;
+	}
+	
+	/**
+	 * Bound as the raw string and parsed once, the binder would otherwise split
+	 * it and look up {@code none} as an enum constant.
+	 */
+	public void setDefaultExpand(final String defaultExpand) {
+		this.defaultExpand = Expand.parse(defaultExpand);
+	}
+	
+	@NoArgsConstructor
+	@AllArgsConstructor
+	@Data
+	public static class BulkheadSpec {
+		
+		private int maxThreads;
+		private int queueCapacity;
+		
+	}
+	
+	public enum Mode {
+		BLOCKING,
+		REACTIVE
+	}
+	
+}
@@ -0,0 +1,19 @@
+package com.selimhorri.app.config.export;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.export")
+@Data
+public class ExportProperties {
+	
+	/**
+	 * Async timeout of a streamed export response only, every other async
+	 * request keeps the container default.
+	 */
+	private Duration timeout = Duration.ofMinutes(30);
+	
+}
@@ -0,0 +1,12 @@
+package com.selimhorri.app.config.importer;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ImportProperties.class)
+public class ImportConfig {
+	
+	
+	
+}
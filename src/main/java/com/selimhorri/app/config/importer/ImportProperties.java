@@ -0,0 +1,26 @@
+package com.selimhorri.app.config.importer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.import")
+@Data
+public class ImportProperties {
+	
+	/**
+	 * Rows written per JDBC batch, each chunk commits in its own transaction.
+	 */
+	private int chunkSize = 1000;
+	
+	/**
+	 * Rejected rows listed in the import report, the rest are only counted.
+	 */
+	private int maxReportedErrors = 100;
+	
+	/**
+	 * Chunks between two progress log lines.
+	 */
+	private int progressInterval = 100;
+	
+}
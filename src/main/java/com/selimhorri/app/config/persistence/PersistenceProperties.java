@@ -0,0 +1,22 @@
+package com.selimhorri.app.config.persistence;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.persistence")
+@Data
+public class PersistenceProperties {
+	
+	/**
+	 * {@code insert} rejects a create of an existing item with 409,
+	 * {@code upsert} overwrites its quantity in the same single statement.
+	 */
+	private SaveMode saveMode = SaveMode.INSERT;
+	
+	public enum SaveMode {
+		INSERT,
+		UPSERT
+	}
+	
+}
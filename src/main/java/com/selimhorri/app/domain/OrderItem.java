@@ -6,7 +6,12 @@ import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.IdClass;
+import javax.persistence.PostLoad;
+import javax.persistence.PrePersist;
 import javax.persistence.Table;
+import javax.persistence.Transient;
+
+import org.springframework.data.domain.Persistable;
 
 import com.selimhorri.app.domain.id.OrderItemId;
 
@@ -15,6 +20,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Entity
 @Table(name = "order_items")
@@ -24,7 +30,7 @@ import lombok.NoArgsConstructor;
 @EqualsAndHashCode(callSuper = true)
 @Data
 @Builder
-public final class OrderItem extends AbstractMappedEntity implements Serializable {
+public final class OrderItem extends AbstractMappedEntity implements Persistable<OrderItemId>, Serializable {
 	
 	private static final long serialVersionUID = 1L;
 	
@@ -39,6 +45,33 @@ public final class OrderItem extends AbstractMappedEntity implements Serializabl
 	@Column(name = "ordered_quantity")
 	private Integer orderedQuantity;
 	
+	/**
+	 * Ids are assigned by the caller, so Spring Data cannot tell a new row from
+	 * an existing one by them; without this flag every save would merge and
+	 * SELECT the row first. Set on persist rather than on flush, so a row
+	 * saved earlier in the same transaction is already known to exist.
+	 */
+	@Transient
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	private boolean persisted;
+	
+	@Override
+	public OrderItemId getId() {
+		return new OrderItemId(this.productId, this.orderId);
+	}
+	
+	@Override
+	public boolean isNew() {
+		return !this.persisted;
+	}
+	
+	@PostLoad
+	@PrePersist
+	void markPersisted() {
+		this.persisted = true;
+	}
+	
 }
 
 
@@ -0,0 +1,52 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * Local copy of the order-service fields shown next to an order item, kept
+ * current by order change events. {@code version} is the version of the
+ * last applied event, not an optimistic lock.
+ */
+@Entity
+@Table(name = "order_projections")
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Data
+@Builder
+public final class OrderProjection extends AbstractMappedEntity implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@Id
+	@Column(name = "order_id", nullable = false, updatable = false)
+	private Integer orderId;
+	
+	@Column(name = "order_date")
+	private LocalDateTime orderDate;
+	
+	@Column(name = "order_desc")
+	private String orderDesc;
+	
+	@Column(name = "order_fee")
+	private Double orderFee;
+	
+	@Column(nullable = false)
+	private Long version;
+	
+	@Column(nullable = false)
+	private boolean deleted;
+	
+}
@@ -0,0 +1,55 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * Local copy of the product-service fields shown next to an order item, kept
+ * current by product change events. {@code version} is the version of the
+ * last applied event, not an optimistic lock.
+ */
+@Entity
+@Table(name = "product_projections")
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Data
+@Builder
+public final class ProductProjection extends AbstractMappedEntity implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@Id
+	@Column(name = "product_id", nullable = false, updatable = false)
+	private Integer productId;
+	
+	@Column(name = "product_title")
+	private String productTitle;
+	
+	@Column(name = "image_url")
+	private String imageUrl;
+	
+	private String sku;
+	
+	@Column(name = "price_unit")
+	private Double priceUnit;
+	
+	private Integer quantity;
+	
+	@Column(nullable = false)
+	private Long version;
+	
+	@Column(nullable = false)
+	private boolean deleted;
+	
+}
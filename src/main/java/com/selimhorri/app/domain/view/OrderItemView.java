@@ -0,0 +1,22 @@
+package com.selimhorri.app.domain.view;
+
+import com.selimhorri.app.domain.OrderItem;
+import com.selimhorri.app.domain.OrderProjection;
+import com.selimhorri.app.domain.ProductProjection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Order item row left joined with its projections, either side is null when
+ * no change event for that product or order has been applied yet.
+ */
+@Getter
+@AllArgsConstructor
+public class OrderItemView {
+	
+	private final OrderItem orderItem;
+	private final ProductProjection product;
+	private final OrderProjection order;
+	
+}
@@ -0,0 +1,30 @@
+package com.selimhorri.app.dto;
+
+import java.io.Serializable;
+
+import javax.validation.constraints.NotNull;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Change applied to the ordered quantity, refused when the result would fall
+ * below {@code min} or above {@code max} (either may be left out).
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class QuantityDeltaDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@NotNull(message = "Field must not be NULL")
+	private Integer delta;
+	
+	private Integer min;
+	private Integer max;
+	
+}
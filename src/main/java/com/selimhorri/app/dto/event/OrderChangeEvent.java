@@ -0,0 +1,37 @@
+package com.selimhorri.app.dto.event;
+
+import java.io.Serializable;
+
+import javax.validation.constraints.NotNull;
+
+import com.selimhorri.app.dto.OrderDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An order created, updated or deleted in order-service. {@code version}
+ * grows with every change of the same order, redelivered and out of order
+ * events are recognised by it.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class OrderChangeEvent implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@NotNull(message = "Field must not be NULL")
+	private Integer orderId;
+	
+	@NotNull(message = "Field must not be NULL")
+	private Long version;
+	
+	private boolean deleted;
+	
+	private OrderDto orderDto;
+	
+}
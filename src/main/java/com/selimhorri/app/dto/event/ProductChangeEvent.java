@@ -0,0 +1,37 @@
+package com.selimhorri.app.dto.event;
+
+import java.io.Serializable;
+
+import javax.validation.constraints.NotNull;
+
+import com.selimhorri.app.dto.ProductDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A product created, updated or deleted in product-service. {@code version}
+ * grows with every change of the same product, redelivered and out of order
+ * events are recognised by it.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class ProductChangeEvent implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@NotNull(message = "Field must not be NULL")
+	private Integer productId;
+	
+	@NotNull(message = "Field must not be NULL")
+	private Long version;
+	
+	private boolean deleted;
+	
+	private ProductDto productDto;
+	
+}
@@ -0,0 +1,25 @@
+package com.selimhorri.app.dto.response.aggregate;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of lines and units ordered of one order, summed by the database.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class OrderQuantityTotal implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private Integer orderId;
+	private Long lines;
+	private Long units;
+	
+}
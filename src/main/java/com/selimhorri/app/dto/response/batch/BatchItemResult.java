@@ -0,0 +1,39 @@
+package com.selimhorri.app.dto.response.batch;
+
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a batch write, {@code index} is its position in the
+ * request body.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class BatchItemResult implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private int index;
+	private Integer productId;
+	private Integer orderId;
+	private Status status;
+	
+	@JsonInclude(Include.NON_NULL)
+	private String message;
+	
+	public enum Status {
+		CREATED, 
+		DUPLICATE, 
+		INVALID
+	}
+	
+}
@@ -2,6 +2,9 @@ package com.selimhorri.app.dto.response.collection;
 
 import java.util.Collection;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -15,6 +18,12 @@ public class DtoCollectionResponse<T> {
 	
 	private Collection<T> collection;
 	
+	/**
+	 * True when the request deadline ran out before every item was enriched.
+	 */
+	@JsonInclude(Include.NON_DEFAULT)
+	private boolean partial;
+	
 }
 
 
@@ -0,0 +1,50 @@
+package com.selimhorri.app.dto.response.importer;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class ImportReport implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private long rowsRead;
+	private long rowsImported;
+	private long rowsRejected;
+	
+	/**
+	 * Rejected rows by line number, capped at {@code app.import.max-reported-errors}.
+	 */
+	@Builder.Default
+	private List<RowError> errors = new ArrayList<>();
+	
+	/**
+	 * True when more rows were rejected than {@code errors} lists.
+	 */
+	@JsonInclude(Include.NON_DEFAULT)
+	private boolean errorsTruncated;
+	
+	@NoArgsConstructor
+	@AllArgsConstructor
+	@Data
+	public static class RowError implements Serializable {
+		
+		private static final long serialVersionUID = 1L;
+		private long line;
+		private String message;
+		
+	}
+	
+}
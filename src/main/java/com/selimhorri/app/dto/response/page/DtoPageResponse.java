@@ -0,0 +1,30 @@
+package com.selimhorri.app.dto.response.page;
+
+import java.util.Collection;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class DtoPageResponse<T> {
+	
+	private Collection<T> collection;
+	
+	@JsonInclude(Include.NON_NULL)
+	private String next;
+	
+	/**
+	 * True when the request deadline ran out before every item was enriched.
+	 */
+	@JsonInclude(Include.NON_DEFAULT)
+	private boolean partial;
+	
+}
@@ -16,6 +16,8 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 
 import com.selimhorri.app.exception.payload.ExceptionMsg;
+import com.selimhorri.app.exception.wrapper.DeadlineExceededException;
+import com.selimhorri.app.exception.wrapper.InvalidRequestException;
 import com.selimhorri.app.exception.wrapper.OrderItemNotFoundException;
 
 import lombok.RequiredArgsConstructor;
@@ -46,6 +48,7 @@ public class ApiExceptionHandler {
 	
 	@ExceptionHandler(value = {
 		IllegalStateException.class,
+		InvalidRequestException.class,
 		OrderItemNotFoundException.class,
 	})
 	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleApiRequestException(final T e) {
@@ -106,6 +109,23 @@ public class ApiExceptionHandler {
 					.build(), serviceUnavailable);
 	}
 	
+	@ExceptionHandler(value = {
+		DeadlineExceededException.class,
+	})
+	public ResponseEntity<ExceptionMsg> handleDeadlineExceededException(final DeadlineExceededException e) {
+		
+		log.warn("**ApiExceptionHandler controller, handle request deadline exceeded*\n");
+		final var gatewayTimeout = HttpStatus.GATEWAY_TIMEOUT;
+		
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+					.msg("#### " + e.getMessage() + "! ####")
+					.httpStatus(gatewayTimeout)
+					.timestamp(ZonedDateTime
+							.now(ZoneId.systemDefault()))
+					.build(), gatewayTimeout);
+	}
+	
 	@ExceptionHandler(value = {
 		HttpServerErrorException.class,
 	})
@@ -0,0 +1,35 @@
+package com.selimhorri.app.exception.wrapper;
+
+public class InvalidRequestException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+
+	public InvalidRequestException() {
+		super();
+	}
+	
+	public InvalidRequestException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public InvalidRequestException(String message) {
+		super(message);
+	}
+	
+	public InvalidRequestException(Throwable cause) {
+		super(cause);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
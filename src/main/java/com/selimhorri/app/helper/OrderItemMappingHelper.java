@@ -23,6 +23,17 @@ public interface OrderItemMappingHelper {
 				.build();
 	}
 	
+	/**
+	 * Row only mapping, without the product/order placeholders to enrich.
+	 */
+	public static OrderItemDto mapFlat(final OrderItem orderItem) {
+		return OrderItemDto.builder()
+				.productId(orderItem.getProductId())
+				.orderId(orderItem.getOrderId())
+				.orderedQuantity(orderItem.getOrderedQuantity())
+				.build();
+	}
+	
 	public static OrderItem map(final OrderItemDto orderItemDto) {
 		return OrderItem.builder()
 				.productId(orderItemDto.getProductId())
@@ -0,0 +1,33 @@
+package com.selimhorri.app.helper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.selimhorri.app.domain.id.OrderItemId;
+import com.selimhorri.app.exception.wrapper.InvalidRequestException;
+
+/**
+ * Opaque keyset cursors over the (productId, orderId) primary key.
+ */
+public interface PageTokenHelper {
+	
+	public static String encode(final OrderItemId orderItemId) {
+		return Base64.getUrlEncoder()
+				.withoutPadding()
+				.encodeToString((orderItemId.getProductId() + ":" + orderItemId.getOrderId())
+						.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	public static OrderItemId decode(final String token) {
+		if (token == null || token.isBlank()) {
+			return null;
+		}
+		try {
+			final String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+			return new OrderItemId(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+		} catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+			throw new InvalidRequestException("Invalid page token: " + token, e);
+		}
+	}
+	
+}
@@ -0,0 +1,70 @@
+package com.selimhorri.app.helper;
+
+import java.util.Optional;
+
+import com.selimhorri.app.domain.OrderProjection;
+import com.selimhorri.app.domain.ProductProjection;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.event.OrderChangeEvent;
+import com.selimhorri.app.dto.event.ProductChangeEvent;
+
+public interface ProjectionMappingHelper {
+	
+	public static ProductDto map(final ProductProjection productProjection) {
+		return ProductDto.builder()
+				.productId(productProjection.getProductId())
+				.productTitle(productProjection.getProductTitle())
+				.imageUrl(productProjection.getImageUrl())
+				.sku(productProjection.getSku())
+				.priceUnit(productProjection.getPriceUnit())
+				.quantity(productProjection.getQuantity())
+				.build();
+	}
+	
+	public static OrderDto map(final OrderProjection orderProjection) {
+		return OrderDto.builder()
+				.orderId(orderProjection.getOrderId())
+				.orderDate(orderProjection.getOrderDate())
+				.orderDesc(orderProjection.getOrderDesc())
+				.orderFee(orderProjection.getOrderFee())
+				.build();
+	}
+	
+	/**
+	 * A delete keeps the row as a tombstone with its version and no fields.
+	 */
+	public static ProductProjection map(final ProductChangeEvent productChangeEvent) {
+		final ProductDto productDto = Optional.ofNullable(productChangeEvent.getProductDto())
+				.filter(p -> !productChangeEvent.isDeleted())
+				.orElseGet(ProductDto::new);
+		return ProductProjection.builder()
+				.productId(productChangeEvent.getProductId())
+				.productTitle(productDto.getProductTitle())
+				.imageUrl(productDto.getImageUrl())
+				.sku(productDto.getSku())
+				.priceUnit(productDto.getPriceUnit())
+				.quantity(productDto.getQuantity())
+				.version(productChangeEvent.getVersion())
+				.deleted(productChangeEvent.isDeleted())
+				.build();
+	}
+	
+	/**
+	 * A delete keeps the row as a tombstone with its version and no fields.
+	 */
+	public static OrderProjection map(final OrderChangeEvent orderChangeEvent) {
+		final OrderDto orderDto = Optional.ofNullable(orderChangeEvent.getOrderDto())
+				.filter(o -> !orderChangeEvent.isDeleted())
+				.orElseGet(OrderDto::new);
+		return OrderProjection.builder()
+				.orderId(orderChangeEvent.getOrderId())
+				.orderDate(orderDto.getOrderDate())
+				.orderDesc(orderDto.getOrderDesc())
+				.orderFee(orderDto.getOrderFee())
+				.version(orderChangeEvent.getVersion())
+				.deleted(orderChangeEvent.isDeleted())
+				.build();
+	}
+	
+}
@@ -1,12 +1,137 @@
 package com.selimhorri.app.repository;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.OrderItem;
 import com.selimhorri.app.domain.id.OrderItemId;
+import com.selimhorri.app.domain.view.OrderItemView;
+import com.selimhorri.app.dto.response.aggregate.OrderQuantityTotal;
+import com.selimhorri.app.dto.response.aggregate.ProductQuantityTotal;
 
-public interface OrderItemRepository extends JpaRepository<OrderItem, OrderItemId> {
+public interface OrderItemRepository extends JpaRepository<OrderItem, OrderItemId>, OrderItemRepositoryCustom {
+	
+	/**
+	 * Every row with its product and order projections, a missing projection
+	 * comes back as null instead of dropping the row.
+	 */
+	String SELECT_VIEW = "SELECT new com.selimhorri.app.domain.view.OrderItemView(o, p, r) FROM OrderItem o "
+			+ "LEFT JOIN ProductProjection p ON p.productId = o.productId "
+			+ "LEFT JOIN OrderProjection r ON r.orderId = o.orderId ";
+	
+	@Query(SELECT_VIEW)
+	List<OrderItemView> findAllViews();
+	
+	@Query(SELECT_VIEW 
+			+ "ORDER BY o.productId ASC, o.orderId ASC")
+	List<OrderItemView> findAllViews(final Pageable pageable);
+	
+	/**
+	 * Keyset page following (productId, orderId); the leading range predicate
+	 * lets the primary key index seek straight to the cursor.
+	 */
+	@Query(SELECT_VIEW 
+			+ "WHERE o.productId >= :productId "
+			+ "AND (o.productId > :productId OR o.orderId > :orderId) "
+			+ "ORDER BY o.productId ASC, o.orderId ASC")
+	List<OrderItemView> findAllViewsAfter(@Param("productId") final Integer productId, 
+			@Param("orderId") final Integer orderId, final Pageable pageable);
+	
+	/**
+	 * Served by the order_id index, the primary key leads with product_id.
+	 */
+	@Query(SELECT_VIEW 
+			+ "WHERE o.orderId = :orderId "
+			+ "ORDER BY o.productId ASC")
+	List<OrderItemView> findAllViewsByOrderId(@Param("orderId") final Integer orderId);
+	
+	@Query(SELECT_VIEW 
+			+ "WHERE o.productId = :productId AND o.orderId = :orderId")
+	Optional<OrderItemView> findViewById(@Param("productId") final Integer productId, 
+			@Param("orderId") final Integer orderId);
+	
+	/**
+	 * Units per product among the rows created in [from, to), a null bound is
+	 * not checked. Without bounds the groups follow the primary key, with them
+	 * the created_at index covers the whole query.
+	 */
+	@Query("SELECT new com.selimhorri.app.dto.response.aggregate.ProductQuantityTotal("
+			+ "o.productId, COALESCE(SUM(o.orderedQuantity), 0)) FROM OrderItem o "
+			+ "WHERE (:from IS NULL OR o.createdAt >= :from) AND (:to IS NULL OR o.createdAt < :to) "
+			+ "GROUP BY o.productId "
+			+ "ORDER BY o.productId ASC")
+	List<ProductQuantityTotal> sumQuantityByProduct(@Param("from") final Instant from, 
+			@Param("to") final Instant to);
+	
+	/**
+	 * Lines and units per order among the rows created in [from, to), a null
+	 * bound is not checked. Covered by the (order_id, ordered_quantity) index,
+	 * or by the created_at one when bounded.
+	 */
+	@Query("SELECT new com.selimhorri.app.dto.response.aggregate.OrderQuantityTotal("
+			+ "o.orderId, COUNT(o), COALESCE(SUM(o.orderedQuantity), 0)) FROM OrderItem o "
+			+ "WHERE (:from IS NULL OR o.createdAt >= :from) AND (:to IS NULL OR o.createdAt < :to) "
+			+ "GROUP BY o.orderId "
+			+ "ORDER BY o.orderId ASC")
+	List<OrderQuantityTotal> sumQuantityByOrder(@Param("from") final Instant from, 
+			@Param("to") final Instant to);
+	
+	/**
+	 * Adds {@code delta} in the database itself, so concurrent increments are
+	 * never lost. Returns 0 when the row does not exist or the result would
+	 * leave the [min, max] bounds, a null bound is not checked.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE OrderItem o SET o.orderedQuantity = COALESCE(o.orderedQuantity, 0) + :delta, "
+			+ "o.updatedAt = CURRENT_TIMESTAMP "
+			+ "WHERE o.productId = :productId AND o.orderId = :orderId "
+			+ "AND (:min IS NULL OR COALESCE(o.orderedQuantity, 0) + :delta >= :min) "
+			+ "AND (:max IS NULL OR COALESCE(o.orderedQuantity, 0) + :delta <= :max)")
+	int incrementOrderedQuantity(@Param("productId") final Integer productId, 
+			@Param("orderId") final Integer orderId, 
+			@Param("delta") final Integer delta, 
+			@Param("min") final Integer min, 
+			@Param("max") final Integer max);
+	
+	/**
+	 * Single UPDATE without loading the row first, returns 0 when it does not
+	 * exist.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE OrderItem o SET o.orderedQuantity = :orderedQuantity, o.updatedAt = CURRENT_TIMESTAMP "
+			+ "WHERE o.productId = :productId AND o.orderId = :orderId")
+	int updateOrderedQuantity(@Param("productId") final Integer productId, 
+			@Param("orderId") final Integer orderId, 
+			@Param("orderedQuantity") final Integer orderedQuantity);
 	
+	/**
+	 * Single DELETE on the order_id index without loading the rows first,
+	 * returns the number of rows removed.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("DELETE FROM OrderItem o WHERE o.orderId = :orderId")
+	int deleteAllByOrderId(@Param("orderId") final Integer orderId);
 	
+	/**
+	 * Forward-only cursor over the whole table, rows are pulled from the driver
+	 * in fetch size chunks. Must be consumed and closed inside a transaction.
+	 */
+	@QueryHints(value = {
+		@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"),
+		@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"),
+	})
+	@Query("SELECT o FROM OrderItem o")
+	Stream<OrderItem> streamAll();
 	
 }
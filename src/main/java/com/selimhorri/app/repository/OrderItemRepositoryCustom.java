@@ -0,0 +1,17 @@
+package com.selimhorri.app.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.selimhorri.app.domain.OrderItem;
+import com.selimhorri.app.domain.id.OrderItemId;
+import com.selimhorri.app.domain.view.OrderItemView;
+
+public interface OrderItemRepositoryCustom {
+	
+	List<OrderItemView> findAllViewsByIdIn(final Collection<OrderItemId> orderItemIds);
+	List<OrderItemId> findIdsIn(final Collection<OrderItemId> orderItemIds);
+	int upsert(final OrderItem orderItem);
+	int upsertAll(final Collection<OrderItem> orderItems);
+	
+}
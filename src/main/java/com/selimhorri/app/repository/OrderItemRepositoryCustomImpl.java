@@ -0,0 +1,123 @@
+package com.selimhorri.app.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+
+import org.hibernate.Session;
+
+import com.selimhorri.app.domain.OrderItem;
+import com.selimhorri.app.domain.id.OrderItemId;
+import com.selimhorri.app.domain.view.OrderItemView;
+
+/**
+ * Statements Spring Data cannot derive. Multi-get by composite id is a
+ * row-value IN list, {@code (product_id, order_id) IN ((?, ?), ...)}, which
+ * Hibernate expands into OR-ed pairs on dialects without row-value support.
+ * Large lists are split in chunks to stay under the driver's bind parameter
+ * limits and keep the number of distinct statements small.
+ */
+public class OrderItemRepositoryCustomImpl implements OrderItemRepositoryCustom {
+	
+	static final int CHUNK_SIZE = 250;
+	
+	private static final String SELECT_ID = "SELECT new com.selimhorri.app.domain.id.OrderItemId(o.productId, o.orderId) "
+			+ "FROM OrderItem o ";
+	
+	/**
+	 * Every profile runs on H2. The update branch stamps updated_at like the
+	 * JPQL updates do, the insert branch leaves the audit columns to their
+	 * defaults like an entity insert.
+	 */
+	private static final String UPSERT = "MERGE INTO order_items t "
+			+ "USING (SELECT CAST(? AS INT) AS product_id, CAST(? AS INT) AS order_id, "
+			+ "CAST(? AS INT) AS ordered_quantity) s "
+			+ "ON t.product_id = s.product_id AND t.order_id = s.order_id "
+			+ "WHEN MATCHED THEN UPDATE SET ordered_quantity = s.ordered_quantity, updated_at = CURRENT_TIMESTAMP "
+			+ "WHEN NOT MATCHED THEN INSERT (product_id, order_id, ordered_quantity) "
+			+ "VALUES (s.product_id, s.order_id, s.ordered_quantity)";
+	
+	@PersistenceContext
+	private EntityManager entityManager;
+	
+	@Override
+	public List<OrderItemView> findAllViewsByIdIn(final Collection<OrderItemId> orderItemIds) {
+		return this.findIn(OrderItemRepository.SELECT_VIEW, OrderItemView.class, orderItemIds);
+	}
+	
+	/**
+	 * Existence check by exact pairs, only ids of rows that are in the list
+	 * come back.
+	 */
+	@Override
+	public List<OrderItemId> findIdsIn(final Collection<OrderItemId> orderItemIds) {
+		return this.findIn(SELECT_ID, OrderItemId.class, orderItemIds);
+	}
+	
+	/**
+	 * Insert or overwrite in one MERGE statement, a create retried after a
+	 * timeout succeeds again instead of hitting the primary key.
+	 */
+	@Override
+	public int upsert(final OrderItem orderItem) {
+		return this.upsertAll(List.of(orderItem));
+	}
+	
+	/**
+	 * Same statement for many rows, sent as a single JDBC batch on the
+	 * connection of the current transaction. Returns the rows inserted or
+	 * updated; a row the driver reports as {@code SUCCESS_NO_INFO} counts as one.
+	 */
+	@Override
+	public int upsertAll(final Collection<OrderItem> orderItems) {
+		return this.entityManager.unwrap(Session.class).doReturningWork(connection -> {
+			try (final PreparedStatement statement = connection.prepareStatement(UPSERT)) {
+				for (final OrderItem orderItem : orderItems) {
+					statement.setInt(1, orderItem.getProductId());
+					statement.setInt(2, orderItem.getOrderId());
+					statement.setObject(3, orderItem.getOrderedQuantity(), Types.INTEGER);
+					statement.addBatch();
+				}
+				int rows = 0;
+				for (final int count : statement.executeBatch()) {
+					rows += (count == Statement.SUCCESS_NO_INFO) ? 1 : count;
+				}
+				return rows;
+			}
+		});
+	}
+	
+	private <R> List<R> findIn(final String select, final Class<R> resultClass, final Collection<OrderItemId> orderItemIds) {
+		final List<OrderItemId> ids = new ArrayList<>(orderItemIds);
+		final List<R> results = new ArrayList<>(ids.size());
+		for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+			results.addAll(this.query(select, resultClass, ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())))
+					.getResultList());
+		}
+		return results;
+	}
+	
+	private <R> TypedQuery<R> query(final String select, final Class<R> resultClass, final List<OrderItemId> chunk) {
+		final StringBuilder jpql = new StringBuilder(select)
+				.append("WHERE (o.productId, o.orderId) IN (");
+		for (int i = 0; i < chunk.size(); i++) {
+			jpql.append(i == 0 ? "" : ", ").append("(:p").append(i).append(", :o").append(i).append(")");
+		}
+		jpql.append(")");
+		
+		final TypedQuery<R> query = this.entityManager.createQuery(jpql.toString(), resultClass);
+		for (int i = 0; i < chunk.size(); i++) {
+			query.setParameter("p" + i, chunk.get(i).getProductId());
+			query.setParameter("o" + i, chunk.get(i).getOrderId());
+		}
+		return query;
+	}
+	
+}
@@ -0,0 +1,24 @@
+package com.selimhorri.app.repository;
+
+import java.util.Optional;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.selimhorri.app.domain.OrderProjection;
+
+public interface OrderProjectionRepository extends JpaRepository<OrderProjection, Integer> {
+	
+	/**
+	 * Row locked until the end of the transaction, so two events for the same
+	 * order are compared against each other's version and never interleave.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT p FROM OrderProjection p WHERE p.orderId = :orderId")
+	Optional<OrderProjection> findForUpdate(@Param("orderId") final Integer orderId);
+	
+}
@@ -0,0 +1,24 @@
+package com.selimhorri.app.repository;
+
+import java.util.Optional;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.selimhorri.app.domain.ProductProjection;
+
+public interface ProductProjectionRepository extends JpaRepository<ProductProjection, Integer> {
+	
+	/**
+	 * Row locked until the end of the transaction, so two events for the same
+	 * product are compared against each other's version and never interleave.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT p FROM ProductProjection p WHERE p.productId = :productId")
+	Optional<ProductProjection> findForUpdate(@Param("productId") final Integer productId);
+	
+}
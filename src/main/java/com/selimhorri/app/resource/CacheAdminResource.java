@@ -0,0 +1,38 @@
+package com.selimhorri.app.resource;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.client.OrderClient;
+import com.selimhorri.app.client.ProductClient;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/admin/caches")
+@Slf4j
+@RequiredArgsConstructor
+public class CacheAdminResource {
+	
+	private final ProductClient productClient;
+	private final OrderClient orderClient;
+	
+	@DeleteMapping("/orders/{orderId}")
+	public ResponseEntity<Boolean> evictOrder(@PathVariable("orderId") final String orderId) {
+		log.info("*** Boolean, resource; evict cached order by id *");
+		this.orderClient.evict(Integer.parseInt(orderId));
+		return ResponseEntity.ok(true);
+	}
+	
+	@DeleteMapping("/products/{productId}")
+	public ResponseEntity<Boolean> evictProduct(@PathVariable("productId") final String productId) {
+		log.info("*** Boolean, resource; evict cached product by id *");
+		this.productClient.evict(Integer.parseInt(productId));
+		return ResponseEntity.ok(true);
+	}
+	
+}
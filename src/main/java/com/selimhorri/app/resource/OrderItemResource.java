@@ -1,22 +1,51 @@
 package com.selimhorri.app.resource;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.selimhorri.app.client.RequestDeadline;
+import com.selimhorri.app.config.export.ExportProperties;
+import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.domain.id.OrderItemId;
 import com.selimhorri.app.dto.OrderItemDto;
+import com.selimhorri.app.dto.QuantityDeltaDto;
+import com.selimhorri.app.dto.response.aggregate.OrderQuantityTotal;
+import com.selimhorri.app.dto.response.aggregate.ProductQuantityTotal;
+import com.selimhorri.app.dto.response.batch.BatchItemResult;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.dto.response.importer.ImportReport;
+import com.selimhorri.app.dto.response.page.DtoPageResponse;
+import com.selimhorri.app.exception.wrapper.InvalidRequestException;
+import com.selimhorri.app.helper.PageTokenHelper;
 import com.selimhorri.app.service.OrderItemService;
+import com.selimhorri.app.service.enrichment.Expand;
+import com.selimhorri.app.service.importer.OrderItemImporter;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,21 +56,162 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class OrderItemResource {
 	
+	private static final int EXPORT_FLUSH_BYTES = 64 * 1024;
+	
 	private final OrderItemService orderItemService;
+	private final ObjectMapper objectMapper;
+	private final OrderItemImporter orderItemImporter;
+	private final ExportProperties exportProperties;
+	private final AsyncTaskExecutor applicationTaskExecutor;
 	
 	@GetMapping
-	public ResponseEntity<DtoCollectionResponse<OrderItemDto>> findAll() {
+	public ResponseEntity<DtoCollectionResponse<OrderItemDto>> findAll(
+			@RequestParam(name = "expand", required = false) final String expand) {
 		log.info("*** OrderItemDto List, controller; fetch all orderItems *");
-		return ResponseEntity.ok(new DtoCollectionResponse<>(this.orderItemService.findAll()));
+		final List<OrderItemDto> orderItemDtos = (expand == null)
+				? this.orderItemService.findAll()
+				: this.orderItemService.findAll(Expand.parse(expand));
+		return ResponseEntity.ok(new DtoCollectionResponse<>(orderItemDtos, RequestDeadline.isCurrentPartial()));
+	}
+	
+	@GetMapping(params = "limit")
+	public ResponseEntity<DtoPageResponse<OrderItemDto>> findAll(
+			@RequestParam("limit") final int limit, 
+			@RequestParam(name = "next", required = false) final String next, 
+			@RequestParam(name = "expand", required = false) final String expand) {
+		log.info("*** OrderItemDto Page, controller; fetch a page of orderItems *");
+		final int pageLimit = Math.min(Math.max(limit, 1), AppConstant.MAX_PAGE_LIMIT);
+		final OrderItemId after = PageTokenHelper.decode(next);
+		final List<OrderItemDto> page = (expand == null)
+				? this.orderItemService.findAll(after, pageLimit)
+				: this.orderItemService.findAll(after, pageLimit, Expand.parse(expand));
+		final String nextToken = (page.size() < pageLimit) ? null : PageTokenHelper.encode(
+				new OrderItemId(page.get(page.size() - 1).getProductId(), page.get(page.size() - 1).getOrderId()));
+		return ResponseEntity.ok(new DtoPageResponse<>(page, nextToken, RequestDeadline.isCurrentPartial()));
+	}
+	
+	@GetMapping("/orders/{orderId}")
+	public ResponseEntity<DtoCollectionResponse<OrderItemDto>> findAllByOrderId(
+			@PathVariable("orderId") final String orderId, 
+			@RequestParam(name = "expand", required = false) final String expand) {
+		log.info("*** OrderItemDto List, controller; fetch orderItems by orderId *");
+		final List<OrderItemDto> orderItemDtos = (expand == null)
+				? this.orderItemService.findAllByOrderId(Integer.parseInt(orderId))
+				: this.orderItemService.findAllByOrderId(Integer.parseInt(orderId), Expand.parse(expand));
+		return ResponseEntity.ok(new DtoCollectionResponse<>(orderItemDtos, RequestDeadline.isCurrentPartial()));
+	}
+	
+	/**
+	 * Units ordered per product, optionally among the items created in
+	 * [from, to) given as ISO-8601 instants.
+	 */
+	@GetMapping("/totals/products")
+	public ResponseEntity<DtoCollectionResponse<ProductQuantityTotal>> sumQuantityByProduct(
+			@RequestParam(name = "from", required = false) final String from, 
+			@RequestParam(name = "to", required = false) final String to) {
+		log.info("*** ProductQuantityTotal List, resource; sum orderItem quantities by product *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(
+				this.orderItemService.sumQuantityByProduct(this.parseInstant(from), this.parseInstant(to)), false));
+	}
+	
+	/**
+	 * Lines and units ordered per order, optionally among the items created in
+	 * [from, to) given as ISO-8601 instants.
+	 */
+	@GetMapping("/totals/orders")
+	public ResponseEntity<DtoCollectionResponse<OrderQuantityTotal>> sumQuantityByOrder(
+			@RequestParam(name = "from", required = false) final String from, 
+			@RequestParam(name = "to", required = false) final String to) {
+		log.info("*** OrderQuantityTotal List, resource; sum orderItem quantities by order *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(
+				this.orderItemService.sumQuantityByOrder(this.parseInstant(from), this.parseInstant(to)), false));
+	}
+	
+	/**
+	 * Newline-delimited JSON of every row, written while the table is being read.
+	 * The rows are read on the application task executor and flushed in chunks,
+	 * the response carries its own async timeout ({@code app.export.timeout}).
+	 */
+	@GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<ResponseBodyEmitter> exportAll() {
+		log.info("*** OrderItemDto Stream, controller; export all orderItems *");
+		final ObjectWriter writer = this.objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+		final ResponseBodyEmitter emitter = new ResponseBodyEmitter(this.exportProperties.getTimeout().toMillis());
+		this.applicationTaskExecutor.execute(() -> {
+			final ByteArrayOutputStream buffer = new ByteArrayOutputStream(EXPORT_FLUSH_BYTES);
+			try {
+				this.orderItemService.exportAll(o -> {
+					try {
+						buffer.write(writer.writeValueAsBytes(o));
+						buffer.write('\n');
+						if (buffer.size() >= EXPORT_FLUSH_BYTES) {
+							emitter.send(buffer.toByteArray());
+							buffer.reset();
+						}
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+				emitter.send(buffer.toByteArray());
+				emitter.complete();
+			} catch (Exception e) {
+				// timeout o cliente desconectado: send falla y corta la lectura del stream
+				emitter.completeWithError(e);
+			}
+		});
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.body(emitter);
+	}
+	
+	/**
+	 * Bulk load streamed from the request body, CSV with an optional
+	 * {@code productId,orderId,orderedQuantity} header.
+	 */
+	@PostMapping(value = "/import", consumes = "text/csv")
+	public ResponseEntity<ImportReport> importCsv(final InputStream inputStream) {
+		log.info("*** ImportReport, resource; import orderItems from csv *");
+		return ResponseEntity.ok(this.orderItemImporter.importAll(inputStream, OrderItemImporter.Format.CSV));
+	}
+	
+	/**
+	 * Bulk load streamed from the request body, one OrderItemDto per line in
+	 * the same shape {@code /export} writes.
+	 */
+	@PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<ImportReport> importNdjson(final InputStream inputStream) {
+		log.info("*** ImportReport, resource; import orderItems from ndjson *");
+		return ResponseEntity.ok(this.orderItemImporter.importAll(inputStream, OrderItemImporter.Format.NDJSON));
 	}
 	
 	@GetMapping("/{orderId}/{productId}")
 	public ResponseEntity<OrderItemDto> findById(
 			@PathVariable("orderId") final String orderId, 
-			@PathVariable("productId") final String productId) {
+			@PathVariable("productId") final String productId, 
+			@RequestParam(name = "expand", required = false) final String expand) {
 		log.info("*** OrderItemDto, resource; fetch orderItem by id *");
-		return ResponseEntity.ok(this.orderItemService.findById(
-				new OrderItemId(Integer.parseInt(productId), Integer.parseInt(orderId))));
+		final OrderItemId orderItemId = new OrderItemId(Integer.parseInt(productId), Integer.parseInt(orderId));
+		return ResponseEntity.ok((expand == null)
+				? this.orderItemService.findById(orderItemId)
+				: this.orderItemService.findById(orderItemId, Expand.parse(expand)));
+	}
+	
+	/**
+	 * Multi-get replacing one {@code GET /{orderId}/{productId}} per item.
+	 */
+	@PostMapping("/lookup")
+	public ResponseEntity<DtoCollectionResponse<OrderItemDto>> findAllById(
+			@RequestBody 
+			@NotNull(message = "Input must not be NULL") final List<OrderItemId> orderItemIds, 
+			@RequestParam(name = "expand", required = false) final String expand) {
+		log.info("*** OrderItemDto List, controller; fetch orderItems by ids *");
+		if (orderItemIds.size() > AppConstant.MAX_BATCH_SIZE) {
+			throw new InvalidRequestException(String.format("Lookup must not exceed %d ids", AppConstant.MAX_BATCH_SIZE));
+		}
+		final List<OrderItemDto> orderItemDtos = (expand == null)
+				? this.orderItemService.findAllById(orderItemIds)
+				: this.orderItemService.findAllById(orderItemIds, Expand.parse(expand));
+		return ResponseEntity.ok(new DtoCollectionResponse<>(orderItemDtos, RequestDeadline.isCurrentPartial()));
 	}
 	
 	@GetMapping("/find")
@@ -62,6 +232,21 @@ public class OrderItemResource {
 		return ResponseEntity.ok(this.orderItemService.save(orderItemDto));
 	}
 	
+	/**
+	 * Writes every item in one transaction and reports each one, an item that
+	 * already exists or lacks its ids does not fail the others.
+	 */
+	@PostMapping("/batch")
+	public ResponseEntity<DtoCollectionResponse<BatchItemResult>> saveAll(
+			@RequestBody 
+			@NotNull(message = "Input must not be NULL") final List<OrderItemDto> orderItemDtos) {
+		log.info("*** BatchItemResult List, resource; save orderItems in batch *");
+		if (orderItemDtos.size() > AppConstant.MAX_BATCH_SIZE) {
+			throw new InvalidRequestException(String.format("Batch must not exceed %d items", AppConstant.MAX_BATCH_SIZE));
+		}
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.orderItemService.saveAll(orderItemDtos), false));
+	}
+	
 	@PutMapping
 	public ResponseEntity<OrderItemDto> update(
 			@RequestBody 
@@ -71,6 +256,19 @@ public class OrderItemResource {
 		return ResponseEntity.ok(this.orderItemService.update(orderItemDto));
 	}
 	
+	@PatchMapping("/{orderId}/{productId}/quantity")
+	public ResponseEntity<Boolean> incrementOrderedQuantity(
+			@PathVariable("orderId") final String orderId, 
+			@PathVariable("productId") final String productId, 
+			@RequestBody 
+			@NotNull(message = "Input must not be NULL") 
+			@Valid final QuantityDeltaDto quantityDeltaDto) {
+		log.info("*** Boolean, resource; increment orderItem quantity *");
+		this.orderItemService.incrementOrderedQuantity(
+				new OrderItemId(Integer.parseInt(productId), Integer.parseInt(orderId)), quantityDeltaDto);
+		return ResponseEntity.ok(true);
+	}
+	
 	@DeleteMapping("/{orderId}/{productId}")
 	public ResponseEntity<Boolean> deleteById(
 			@PathVariable("orderId") final String orderId, 
@@ -80,6 +278,16 @@ public class OrderItemResource {
 		return ResponseEntity.ok(true);
 	}
 	
+	/**
+	 * Removes every item of the order in one statement, answers with the
+	 * number of items removed.
+	 */
+	@DeleteMapping("/orders/{orderId}")
+	public ResponseEntity<Integer> deleteAllByOrderId(@PathVariable("orderId") final String orderId) {
+		log.info("*** Integer, resource; delete orderItems by orderId *");
+		return ResponseEntity.ok(this.orderItemService.deleteAllByOrderId(Integer.parseInt(orderId)));
+	}
+	
 	@DeleteMapping("/delete")
 	public ResponseEntity<Boolean> deleteById(
 			@RequestBody 
@@ -90,16 +298,14 @@ public class OrderItemResource {
 		return ResponseEntity.ok(true);
 	}
 	
+	private Instant parseInstant(final String instant) {
+		try {
+			return (instant == null) ? null : Instant.parse(instant);
+		} catch (DateTimeParseException e) {
+			throw new InvalidRequestException("Invalid instant, expected ISO-8601: " + instant);
+		}
+	}
+	
 	
 	
 }
-
-
-
-
-
-
-
-
-
-
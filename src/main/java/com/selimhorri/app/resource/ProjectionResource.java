@@ -0,0 +1,49 @@
+package com.selimhorri.app.resource;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.dto.event.OrderChangeEvent;
+import com.selimhorri.app.dto.event.ProductChangeEvent;
+import com.selimhorri.app.service.ProjectionService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ingestion of product/order change events, answers false when the event was
+ * already applied or is older than the stored version.
+ */
+@RestController
+@RequestMapping("/api/projections")
+@Slf4j
+@RequiredArgsConstructor
+public class ProjectionResource {
+	
+	private final ProjectionService projectionService;
+	
+	@PostMapping("/products")
+	public ResponseEntity<Boolean> applyProduct(
+			@RequestBody 
+			@NotNull(message = "Input must not be NULL") 
+			@Valid final ProductChangeEvent productChangeEvent) {
+		log.info("*** Boolean, resource; apply product change event *");
+		return ResponseEntity.ok(this.projectionService.apply(productChangeEvent));
+	}
+	
+	@PostMapping("/orders")
+	public ResponseEntity<Boolean> applyOrder(
+			@RequestBody 
+			@NotNull(message = "Input must not be NULL") 
+			@Valid final OrderChangeEvent orderChangeEvent) {
+		log.info("*** Boolean, resource; apply order change event *");
+		return ResponseEntity.ok(this.projectionService.apply(orderChangeEvent));
+	}
+	
+}
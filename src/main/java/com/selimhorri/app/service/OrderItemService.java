@@ -1,16 +1,39 @@
 package com.selimhorri.app.service;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import com.selimhorri.app.domain.id.OrderItemId;
 import com.selimhorri.app.dto.OrderItemDto;
+import com.selimhorri.app.dto.QuantityDeltaDto;
+import com.selimhorri.app.dto.response.aggregate.OrderQuantityTotal;
+import com.selimhorri.app.dto.response.aggregate.ProductQuantityTotal;
+import com.selimhorri.app.dto.response.batch.BatchItemResult;
+import com.selimhorri.app.service.enrichment.Expand;
 
 public interface OrderItemService {
 	
 	List<OrderItemDto> findAll();
+	List<OrderItemDto> findAll(final Set<Expand> expand);
+	List<OrderItemDto> findAll(final OrderItemId after, final int limit);
+	List<OrderItemDto> findAll(final OrderItemId after, final int limit, final Set<Expand> expand);
+	List<OrderItemDto> findAllByOrderId(final Integer orderId);
+	List<OrderItemDto> findAllByOrderId(final Integer orderId, final Set<Expand> expand);
+	List<OrderItemDto> findAllById(final Collection<OrderItemId> orderItemIds);
+	List<OrderItemDto> findAllById(final Collection<OrderItemId> orderItemIds, final Set<Expand> expand);
 	OrderItemDto findById(final OrderItemId orderItemId);
+	OrderItemDto findById(final OrderItemId orderItemId, final Set<Expand> expand);
+	void exportAll(final Consumer<OrderItemDto> consumer);
+	List<ProductQuantityTotal> sumQuantityByProduct(final Instant from, final Instant to);
+	List<OrderQuantityTotal> sumQuantityByOrder(final Instant from, final Instant to);
 	OrderItemDto save(final OrderItemDto orderItemDto);
+	List<BatchItemResult> saveAll(final List<OrderItemDto> orderItemDtos);
 	OrderItemDto update(final OrderItemDto orderItemDto);
+	void incrementOrderedQuantity(final OrderItemId orderItemId, final QuantityDeltaDto quantityDeltaDto);
 	void deleteById(final OrderItemId orderItemId);
+	int deleteAllByOrderId(final Integer orderId);
 	
 }
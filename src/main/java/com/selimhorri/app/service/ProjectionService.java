@@ -0,0 +1,11 @@
+package com.selimhorri.app.service;
+
+import com.selimhorri.app.dto.event.OrderChangeEvent;
+import com.selimhorri.app.dto.event.ProductChangeEvent;
+
+public interface ProjectionService {
+	
+	boolean apply(final ProductChangeEvent productChangeEvent);
+	boolean apply(final OrderChangeEvent orderChangeEvent);
+	
+}
@@ -0,0 +1,151 @@
+package com.selimhorri.app.service.enrichment;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.sleuth.instrument.async.TraceableExecutorService;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.client.RequestDeadline;
+import com.selimhorri.app.config.enrichment.EnrichmentProperties;
+import com.selimhorri.app.config.enrichment.EnrichmentProperties.BulkheadSpec;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * One bounded pool (bulkhead) per downstream running the remote lookups of the
+ * enrichment stage, so a slow order-service can only exhaust the order pool.
+ * A full bulkhead rejects immediately instead of queueing without limit.
+ * Lookups run with the {@link RequestDeadline} and the Sleuth trace context of
+ * the submitting request, so downstream calls join its trace.
+ * Pools are exported as executor.* meters tagged {@code name=enrichment-<downstream>},
+ * rejections as {@code enrichment.bulkhead.rejected}.
+ * It is deliberately not exposed as an {@code Executor} bean to leave
+ * Spring Boot's application task executor in place.
+ */
+@Component
+public class EnrichmentExecutor implements DisposableBean {
+	
+	private final Map<Expand, ThreadPoolExecutor> bulkheads = new EnumMap<>(Expand.class);
+	private final Map<Expand, ExecutorService> tracedBulkheads = new EnumMap<>(Expand.class);
+	
+	@Autowired
+	public EnrichmentExecutor(final EnrichmentProperties enrichmentProperties, final MeterRegistry meterRegistry, 
+			final BeanFactory beanFactory) {
+		this.bulkheads.put(Expand.PRODUCT, bulkhead(Expand.PRODUCT, enrichmentProperties.getProductBulkhead(), meterRegistry));
+		this.bulkheads.put(Expand.ORDER, bulkhead(Expand.ORDER, enrichmentProperties.getOrderBulkhead(), meterRegistry));
+		this.bulkheads.forEach((downstream, bulkhead) -> this.tracedBulkheads.put(downstream, (beanFactory == null)
+				? bulkhead
+				: new TraceableExecutorService(beanFactory, bulkhead, "enrichment-" + downstream.name().toLowerCase())));
+	}
+	
+	/**
+	 * Without a bean factory there is no tracer to propagate, used outside a
+	 * Spring context.
+	 */
+	public EnrichmentExecutor(final EnrichmentProperties enrichmentProperties, final MeterRegistry meterRegistry) {
+		this(enrichmentProperties, meterRegistry, null);
+	}
+	
+	public <T> CompletableFuture<T> submit(final Expand downstream, final Supplier<T> lookup) {
+		try {
+			return CompletableFuture.supplyAsync(RequestDeadline.wrap(lookup), this.tracedBulkheads.get(downstream));
+		} catch (RejectedExecutionException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+	
+	/**
+	 * Runs a batch of lookups on at most {@code max-threads} tasks of the
+	 * downstream bulkhead, so a large listing takes a few queue slots instead of
+	 * one per id. If the bulkhead rejects every task, all lookups fail.
+	 */
+	public <T> Map<Integer, CompletableFuture<T>> submitAll(final Expand downstream, final Set<Integer> ids, 
+			final Function<Integer, T> lookup) {
+		
+		final Map<Integer, CompletableFuture<T>> pending = new LinkedHashMap<>();
+		ids.forEach(id -> pending.put(id, new CompletableFuture<>()));
+		final Queue<Map.Entry<Integer, CompletableFuture<T>>> remaining = new ConcurrentLinkedQueue<>(pending.entrySet());
+		
+		final Runnable worker = RequestDeadline.wrap(() -> drain(remaining, lookup));
+		final int workers = Math.min(ids.size(), this.bulkheads.get(downstream).getMaximumPoolSize());
+		for (int i = 0; i < workers; i++) {
+			try {
+				this.tracedBulkheads.get(downstream).execute(worker);
+			} catch (RejectedExecutionException e) {
+				if (i == 0) {
+					pending.values().forEach(future -> future.completeExceptionally(e));
+				}
+				// los workers ya aceptados consumen el resto de ids
+				break;
+			}
+		}
+		
+		return pending;
+	}
+	
+	@Override
+	public void destroy() {
+		this.bulkheads.values().forEach(ThreadPoolExecutor::shutdown);
+	}
+	
+	private static <T> void drain(final Queue<Map.Entry<Integer, CompletableFuture<T>>> remaining, 
+			final Function<Integer, T> lookup) {
+		Map.Entry<Integer, CompletableFuture<T>> next;
+		while ((next = remaining.poll()) != null) {
+			try {
+				next.getValue().complete(lookup.apply(next.getKey()));
+			} catch (Throwable e) {
+				// también los Error, o quien espere sin deadline se queda bloqueado
+				next.getValue().completeExceptionally(e);
+			}
+		}
+	}
+	
+	private static ThreadPoolExecutor bulkhead(final Expand downstream, final BulkheadSpec bulkheadSpec, 
+			final MeterRegistry meterRegistry) {
+		
+		final String name = "enrichment-" + downstream.name().toLowerCase();
+		final Counter rejected = Counter.builder("enrichment.bulkhead.rejected")
+				.tag("downstream", downstream.name().toLowerCase())
+				.description("Lookups rejected because the downstream bulkhead was full")
+				.register(meterRegistry);
+		
+		final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(name + "-");
+		threadFactory.setDaemon(true);
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+				bulkheadSpec.getMaxThreads(),
+				bulkheadSpec.getMaxThreads(),
+				60L, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(bulkheadSpec.getQueueCapacity()),
+				threadFactory,
+				(task, pool) -> {
+					rejected.increment();
+					throw new RejectedExecutionException(name + " bulkhead is full");
+				});
+		executor.allowCoreThreadTimeOut(true);
+		
+		new ExecutorServiceMetrics(executor, name, Tags.empty()).bindTo(meterRegistry);
+		return executor;
+	}
+	
+}
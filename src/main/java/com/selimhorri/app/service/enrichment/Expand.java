@@ -0,0 +1,35 @@
+package com.selimhorri.app.service.enrichment;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+import com.selimhorri.app.exception.wrapper.InvalidRequestException;
+
+/**
+ * Remote data joined onto order items on demand, e.g. {@code ?expand=product,order}.
+ */
+public enum Expand {
+	
+	PRODUCT,
+	ORDER;
+	
+	/**
+	 * Parses a comma separated list, {@code none} or an empty value mean a bare read.
+	 */
+	public static Set<Expand> parse(final String expand) {
+		final Set<Expand> expansions = EnumSet.noneOf(Expand.class);
+		for (final String token : expand.split(",")) {
+			final String name = token.trim();
+			if (!name.isEmpty() && !"none".equalsIgnoreCase(name)) {
+				try {
+					expansions.add(Expand.valueOf(name.toUpperCase(Locale.ROOT)));
+				} catch (IllegalArgumentException e) {
+					throw new InvalidRequestException("Unknown expand value: " + name, e);
+				}
+			}
+		}
+		return expansions;
+	}
+	
+}
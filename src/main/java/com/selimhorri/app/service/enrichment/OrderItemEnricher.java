@@ -0,0 +1,287 @@
+package com.selimhorri.app.service.enrichment;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.client.AbstractLookupClient;
+import com.selimhorri.app.client.OrderClient;
+import com.selimhorri.app.client.ProductClient;
+import com.selimhorri.app.client.RequestDeadline;
+import com.selimhorri.app.config.enrichment.EnrichmentProperties;
+import com.selimhorri.app.config.enrichment.EnrichmentProperties.Mode;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderItemDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.exception.wrapper.DeadlineExceededException;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Joins product and order data onto order items, fetching every distinct
+ * productId and orderId only once no matter how many rows share it.
+ * Lookups are fanned out on the per-downstream bulkheads of the
+ * {@link EnrichmentExecutor}, or on the WebClient event-loop when
+ * {@code app.enrichment.mode} is {@code reactive}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class OrderItemEnricher {
+
+	private final ProductClient productClient;
+	private final OrderClient orderClient;
+	private final EnrichmentExecutor enrichmentExecutor;
+	private final EnrichmentProperties enrichmentProperties;
+
+	public Set<Expand> getDefaultExpand() {
+		return this.enrichmentProperties.getDefaultExpand();
+	}
+
+	public List<OrderItemDto> enrichAll(final List<OrderItemDto> orderItemDtos) {
+		return this.enrichAll(orderItemDtos, this.getDefaultExpand());
+	}
+
+	/**
+	 * Resolves the relations in {@code expand} for every item, the others are
+	 * left as they are.
+	 */
+	public List<OrderItemDto> enrichAll(final List<OrderItemDto> orderItemDtos, final Set<Expand> expand) {
+		this.enrichMissing(expand.contains(Expand.PRODUCT) ? orderItemDtos : List.of(), 
+				expand.contains(Expand.ORDER) ? orderItemDtos : List.of());
+		return orderItemDtos;
+	}
+	
+	/**
+	 * Resolves the product of {@code missingProducts} and the order of
+	 * {@code missingOrders} only, for items whose other relation was already
+	 * resolved locally. Lookup failures are logged and the item keeps its
+	 * unresolved dto. Lookups still pending when the request deadline runs out
+	 * are abandoned.
+	 */
+	public void enrichMissing(final List<OrderItemDto> missingProducts, final List<OrderItemDto> missingOrders) {
+
+		if (this.enrichmentProperties.getMode() == Mode.REACTIVE) {
+			this.enrichMissingReactive(missingProducts, missingOrders).block();
+			return;
+		}
+
+		final Map<Integer, CompletableFuture<ProductDto>> pendingProducts = missingProducts.isEmpty()
+				? Map.of()
+				: this.enrichmentExecutor.submitAll(Expand.PRODUCT, this.distinct(missingProducts, OrderItemDto::getProductId), 
+						this.productClient::findById);
+		final Map<Integer, CompletableFuture<OrderDto>> pendingOrders = missingOrders.isEmpty()
+				? Map.of()
+				: this.enrichmentExecutor.submitAll(Expand.ORDER, this.distinct(missingOrders, OrderItemDto::getOrderId), 
+						this.orderClient::findById);
+
+		this.join(missingProducts, this.awaitAll(pendingProducts, "product"), 
+				OrderItemDto::getProductId, OrderItemDto::setProductDto);
+		this.join(missingOrders, this.awaitAll(pendingOrders, "order"), 
+				OrderItemDto::getOrderId, OrderItemDto::setOrderDto);
+	}
+
+	/**
+	 * Non-blocking variant of {@link #enrichAll(List, Set)}, up to
+	 * {@code app.enrichment.reactive-concurrency} lookups are in flight at once.
+	 */
+	public Mono<List<OrderItemDto>> enrichAllReactive(final List<OrderItemDto> orderItemDtos, final Set<Expand> expand) {
+		return this.enrichMissingReactive(expand.contains(Expand.PRODUCT) ? orderItemDtos : List.of(), 
+						expand.contains(Expand.ORDER) ? orderItemDtos : List.of())
+				.thenReturn(orderItemDtos);
+	}
+
+	public Mono<Void> enrichMissingReactive(final List<OrderItemDto> missingProducts, final List<OrderItemDto> missingOrders) {
+
+		final Optional<RequestDeadline> deadline = RequestDeadline.current();
+		final Mono<Map<Integer, ProductDto>> products = missingProducts.isEmpty()
+				? Mono.just(Map.of())
+				: this.fetchAllReactive(this.distinct(missingProducts, OrderItemDto::getProductId), this.productClient, 
+						"product", deadline);
+		final Mono<Map<Integer, OrderDto>> orders = missingOrders.isEmpty()
+				? Mono.just(Map.of())
+				: this.fetchAllReactive(this.distinct(missingOrders, OrderItemDto::getOrderId), this.orderClient, 
+						"order", deadline);
+
+		return Mono.zip(products, orders)
+				.doOnNext(resolved -> {
+					this.join(missingProducts, resolved.getT1(), OrderItemDto::getProductId, OrderItemDto::setProductDto);
+					this.join(missingOrders, resolved.getT2(), OrderItemDto::getOrderId, OrderItemDto::setOrderDto);
+				})
+				.contextWrite(RequestDeadline.context(deadline))
+				.then();
+	}
+
+	public OrderItemDto enrich(final OrderItemDto orderItemDto) {
+		return this.enrich(orderItemDto, this.getDefaultExpand());
+	}
+
+	/**
+	 * Fail-fast variant used by single item reads, a failed lookup is rethrown.
+	 * Relations left out of {@code expand} are left as they are.
+	 */
+	public OrderItemDto enrich(final OrderItemDto orderItemDto, final Set<Expand> expand) {
+
+		if (this.enrichmentProperties.getMode() == Mode.REACTIVE) {
+			return this.enrichReactive(orderItemDto, expand).block();
+		}
+
+		final CompletableFuture<ProductDto> product = expand.contains(Expand.PRODUCT)
+				? this.enrichmentExecutor.submit(Expand.PRODUCT, () -> this.productClient.findById(orderItemDto.getProductId()))
+				: CompletableFuture.completedFuture(null);
+		final CompletableFuture<OrderDto> order = expand.contains(Expand.ORDER)
+				? this.enrichmentExecutor.submit(Expand.ORDER, () -> this.orderClient.findById(orderItemDto.getOrderId()))
+				: CompletableFuture.completedFuture(null);
+
+		try {
+			if (expand.contains(Expand.PRODUCT)) {
+				orderItemDto.setProductDto(product.join());
+			}
+		} catch (CompletionException e) {
+			order.cancel(true);
+			log.error("Error fetching product {}: {}", orderItemDto.getProductId(), e.getCause().getMessage());
+			// Lanzar excepción para que el handler la capture
+			throw failure("product", e.getCause());
+		}
+
+		try {
+			if (expand.contains(Expand.ORDER)) {
+				orderItemDto.setOrderDto(order.join());
+			}
+		} catch (CompletionException e) {
+			log.error("Error fetching order {}: {}", orderItemDto.getOrderId(), e.getCause().getMessage());
+			// Lanzar excepción para que el handler la capture
+			throw failure("order", e.getCause());
+		}
+
+		return orderItemDto;
+	}
+
+	public Mono<OrderItemDto> enrichReactive(final OrderItemDto orderItemDto, final Set<Expand> expand) {
+
+		final Mono<Optional<ProductDto>> product = expand.contains(Expand.PRODUCT)
+				? this.fetchReactive(this.productClient, orderItemDto.getProductId(), "product")
+				: Mono.just(Optional.empty());
+		final Mono<Optional<OrderDto>> order = expand.contains(Expand.ORDER)
+				? this.fetchReactive(this.orderClient, orderItemDto.getOrderId(), "order")
+				: Mono.just(Optional.empty());
+
+		return Mono.zip(product, order)
+				.map(resolved -> {
+					if (expand.contains(Expand.PRODUCT)) {
+						orderItemDto.setProductDto(resolved.getT1().orElse(null));
+					}
+					if (expand.contains(Expand.ORDER)) {
+						orderItemDto.setOrderDto(resolved.getT2().orElse(null));
+					}
+					return orderItemDto;
+				})
+				.contextWrite(RequestDeadline.context(RequestDeadline.current()));
+	}
+
+	/**
+	 * A blown request budget is rethrown as is, so it is answered with 504
+	 * instead of a generic lookup failure.
+	 */
+	private static RuntimeException failure(final String resource, final Throwable cause) {
+		if (cause instanceof DeadlineExceededException) {
+			return (DeadlineExceededException) cause;
+		}
+		return new RuntimeException("Failed to fetch " + resource + " data: " + cause.getMessage(), cause);
+	}
+	
+	private <T> void join(final List<OrderItemDto> orderItemDtos, final Map<Integer, T> resolved,
+			final Function<OrderItemDto, Integer> idExtractor, final BiConsumer<OrderItemDto, T> setter) {
+		orderItemDtos.forEach(o -> {
+			if (resolved.containsKey(idExtractor.apply(o))) {
+				setter.accept(o, resolved.get(idExtractor.apply(o)));
+			}
+		});
+	}
+
+	private Set<Integer> distinct(final List<OrderItemDto> orderItemDtos, final Function<OrderItemDto, Integer> idExtractor) {
+		return orderItemDtos.stream()
+				.map(idExtractor)
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+	}
+
+	/**
+	 * Waits no longer than the request deadline, lookups still pending when it
+	 * runs out are left unresolved and the request is marked partial.
+	 */
+	private <T> Map<Integer, T> awaitAll(final Map<Integer, CompletableFuture<T>> pending, final String resource) {
+		final Optional<RequestDeadline> deadline = RequestDeadline.current();
+		final Map<Integer, T> resolved = new HashMap<>();
+		int awaited = 0;
+		int abandoned = 0;
+		for (final Map.Entry<Integer, CompletableFuture<T>> lookup : pending.entrySet()) {
+			awaited++;
+			try {
+				resolved.put(lookup.getKey(), deadline.isPresent()
+						? lookup.getValue().get(deadline.get().remaining().toMillis(), TimeUnit.MILLISECONDS)
+						: lookup.getValue().join());
+			} catch (TimeoutException e) {
+				abandoned++;
+			} catch (ExecutionException | CompletionException e) {
+				log.error("Error fetching {} {}: {}", resource, lookup.getKey(), e.getCause().getMessage());
+				// Continuar sin el dto si falla
+				this.markPartialIfExpired(deadline);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				abandoned += pending.size() - awaited + 1;
+				break;
+			}
+		}
+		if (abandoned > 0) {
+			log.warn("*** Request deadline exceeded, {} of {} {} lookups abandoned *", abandoned, pending.size(), resource);
+			deadline.ifPresent(RequestDeadline::markPartial);
+		}
+		return resolved;
+	}
+
+	private void markPartialIfExpired(final Optional<RequestDeadline> deadline) {
+		deadline.filter(RequestDeadline::isExpired).ifPresent(RequestDeadline::markPartial);
+	}
+
+	private <T> Mono<Map<Integer, T>> fetchAllReactive(final Set<Integer> ids, final AbstractLookupClient<T> client,
+			final String resource, final Optional<RequestDeadline> deadline) {
+		return Flux.fromIterable(ids)
+				.flatMap(id -> client.findByIdReactive(id)
+						.map(fetched -> Map.entry(id, fetched))
+						.onErrorResume(e -> {
+							log.error("Error fetching {} {}: {}", resource, id, e.getMessage());
+							// Continuar sin el dto si falla
+							this.markPartialIfExpired(deadline);
+							return Mono.empty();
+						}), this.enrichmentProperties.getReactiveConcurrency())
+				.collectMap(Map.Entry::getKey, Map.Entry::getValue);
+	}
+
+	private <T> Mono<Optional<T>> fetchReactive(final AbstractLookupClient<T> client, final Integer id,
+			final String resource) {
+		return client.findByIdReactive(id)
+				.map(Optional::of)
+				.defaultIfEmpty(Optional.empty())
+				.onErrorMap(e -> {
+					log.error("Error fetching {} {}: {}", resource, id, e.getMessage());
+					return failure(resource, e);
+				});
+	}
+
+}
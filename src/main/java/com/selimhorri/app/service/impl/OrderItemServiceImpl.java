@@ -1,22 +1,47 @@
 package com.selimhorri.app.service.impl;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import javax.transaction.Transactional;
 
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
-import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.client.OrderClient;
+import com.selimhorri.app.config.persistence.PersistenceProperties;
+import com.selimhorri.app.config.persistence.PersistenceProperties.SaveMode;
+import com.selimhorri.app.domain.OrderItem;
 import com.selimhorri.app.domain.id.OrderItemId;
-import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.domain.view.OrderItemView;
 import com.selimhorri.app.dto.OrderItemDto;
-import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.QuantityDeltaDto;
+import com.selimhorri.app.dto.response.aggregate.OrderQuantityTotal;
+import com.selimhorri.app.dto.response.aggregate.ProductQuantityTotal;
+import com.selimhorri.app.dto.response.batch.BatchItemResult;
 import com.selimhorri.app.exception.wrapper.OrderItemNotFoundException;
 import com.selimhorri.app.helper.OrderItemMappingHelper;
+import com.selimhorri.app.helper.ProjectionMappingHelper;
 import com.selimhorri.app.repository.OrderItemRepository;
 import com.selimhorri.app.service.OrderItemService;
+import com.selimhorri.app.service.enrichment.Expand;
+import com.selimhorri.app.service.enrichment.OrderItemEnricher;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -28,87 +53,311 @@ import lombok.extern.slf4j.Slf4j;
 public class OrderItemServiceImpl implements OrderItemService {
 
 	private final OrderItemRepository orderItemRepository;
-	private final RestTemplate restTemplate;
+	private final OrderItemEnricher orderItemEnricher;
+	private final OrderClient orderClient;
+	private final PersistenceProperties persistenceProperties;
+
+	@PersistenceContext
+	private EntityManager entityManager;
 
 	@Override
 	public List<OrderItemDto> findAll() {
+		return this.findAll(this.orderItemEnricher.getDefaultExpand());
+	}
+
+	@Override
+	public List<OrderItemDto> findAll(final Set<Expand> expand) {
 		log.info("*** OrderItemDto List, service; fetch all orderItems *");
-		return this.orderItemRepository.findAll()
+		return this.resolve(this.orderItemRepository.findAllViews(), expand)
 				.stream()
-				.map(OrderItemMappingHelper::map)
-				.map(o -> {
-					try {
-						o.setProductDto(
-								this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL
-										+ "/" + o.getProductDto().getProductId(), ProductDto.class));
-					} catch (Exception e) {
-						log.error("Error fetching product {}: {}", o.getProductDto().getProductId(), e.getMessage());
-						// Continuar sin productDto si falla
-					}
-					try {
-						o.setOrderDto(this.restTemplate.getForObject(
-								AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/"
-										+ o.getOrderDto().getOrderId(),
-								OrderDto.class));
-					} catch (Exception e) {
-						log.error("Error fetching order {}: {}", o.getOrderDto().getOrderId(), e.getMessage());
-						// Continuar sin orderDto si falla
-					}
-					return o;
-				})
 				.distinct()
 				.collect(Collectors.toUnmodifiableList());
 	}
 
+	@Override
+	public List<OrderItemDto> findAll(final OrderItemId after, final int limit) {
+		return this.findAll(after, limit, this.orderItemEnricher.getDefaultExpand());
+	}
+
+	@Override
+	public List<OrderItemDto> findAll(final OrderItemId after, final int limit, final Set<Expand> expand) {
+		log.info("*** OrderItemDto List, service; fetch a page of orderItems *");
+		final Pageable pageable = PageRequest.of(0, limit);
+		final List<OrderItemView> page = (after == null)
+				? this.orderItemRepository.findAllViews(pageable)
+				: this.orderItemRepository.findAllViewsAfter(after.getProductId(), after.getOrderId(), pageable);
+		return this.resolve(page, expand)
+				.stream()
+				.collect(Collectors.toUnmodifiableList());
+	}
+
+	@Override
+	public List<OrderItemDto> findAllByOrderId(final Integer orderId) {
+		return this.findAllByOrderId(orderId, this.orderItemEnricher.getDefaultExpand());
+	}
+
+	/**
+	 * Every item shares the order, which is resolved once for all of them.
+	 */
+	@Override
+	public List<OrderItemDto> findAllByOrderId(final Integer orderId, final Set<Expand> expand) {
+		log.info("*** OrderItemDto List, service; fetch orderItems by orderId *");
+		return this.resolve(this.orderItemRepository.findAllViewsByOrderId(orderId), expand)
+				.stream()
+				.collect(Collectors.toUnmodifiableList());
+	}
+
+	@Override
+	public List<OrderItemDto> findAllById(final Collection<OrderItemId> orderItemIds) {
+		return this.findAllById(orderItemIds, this.orderItemEnricher.getDefaultExpand());
+	}
+
+	/**
+	 * Items come back in the order they were asked for, ids asked twice or not
+	 * found are left out. Lookups are deduplicated across the whole result.
+	 */
+	@Override
+	public List<OrderItemDto> findAllById(final Collection<OrderItemId> orderItemIds, final Set<Expand> expand) {
+		log.info("*** OrderItemDto List, service; fetch orderItems by ids *");
+		final Set<OrderItemId> ids = orderItemIds.stream()
+				.filter(id -> id != null && id.getProductId() != null && id.getOrderId() != null)
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+		if (ids.isEmpty()) {
+			return List.of();
+		}
+		final Map<OrderItemId, OrderItemDto> found = this.resolve(this.orderItemRepository.findAllViewsByIdIn(ids), expand)
+				.stream()
+				.collect(Collectors.toMap(o -> new OrderItemId(o.getProductId(), o.getOrderId()), Function.identity()));
+		return ids.stream()
+				.map(found::get)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toUnmodifiableList());
+	}
+
 	@Override
 	public OrderItemDto findById(final OrderItemId orderItemId) {
+		return this.findById(orderItemId, this.orderItemEnricher.getDefaultExpand());
+	}
+
+	@Override
+	public OrderItemDto findById(final OrderItemId orderItemId, final Set<Expand> expand) {
 		log.info("*** OrderItemDto, service; fetch orderItem by id *");
-		return this.orderItemRepository.findById(orderItemId)
-				.map(OrderItemMappingHelper::map)
-				.map(o -> {
-					try {
-						o.setProductDto(
-								this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL
-										+ "/" + o.getProductDto().getProductId(), ProductDto.class));
-					} catch (Exception e) {
-						log.error("Error fetching product {}: {}", o.getProductDto().getProductId(), e.getMessage());
-						// Lanzar excepción para que el handler la capture
-						throw new RuntimeException("Failed to fetch product data: " + e.getMessage(), e);
-					}
-					try {
-						o.setOrderDto(this.restTemplate.getForObject(
-								AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/"
-										+ o.getOrderDto().getOrderId(),
-								OrderDto.class));
-					} catch (Exception e) {
-						log.error("Error fetching order {}: {}", o.getOrderDto().getOrderId(), e.getMessage());
-						// Lanzar excepción para que el handler la capture
-						throw new RuntimeException("Failed to fetch order data: " + e.getMessage(), e);
-					}
-					return o;
-				})
+		final OrderItemView view = this.orderItemRepository
+				.findViewById(orderItemId.getProductId(), orderItemId.getOrderId())
 				.orElseThrow(() -> new OrderItemNotFoundException(
 						String.format("OrderItem with id: %s not found", orderItemId)));
+		final OrderItemDto orderItemDto = this.mapView(view, expand);
+		final Set<Expand> missing = EnumSet.noneOf(Expand.class);
+		if (expand.contains(Expand.PRODUCT) && view.getProduct() == null) {
+			missing.add(Expand.PRODUCT);
+		}
+		if (expand.contains(Expand.ORDER) && view.getOrder() == null) {
+			missing.add(Expand.ORDER);
+		}
+		return missing.isEmpty() ? orderItemDto : this.orderItemEnricher.enrich(orderItemDto, missing);
+	}
+
+	/**
+	 * Relations are read from the projections joined in, only those without a
+	 * projection row yet are looked up remotely.
+	 */
+	private List<OrderItemDto> resolve(final List<OrderItemView> views, final Set<Expand> expand) {
+		final List<OrderItemDto> orderItemDtos = new ArrayList<>(views.size());
+		final List<OrderItemDto> missingProducts = new ArrayList<>();
+		final List<OrderItemDto> missingOrders = new ArrayList<>();
+		views.forEach(view -> {
+			final OrderItemDto orderItemDto = this.mapView(view, expand);
+			if (expand.contains(Expand.PRODUCT) && view.getProduct() == null) {
+				missingProducts.add(orderItemDto);
+			}
+			if (expand.contains(Expand.ORDER) && view.getOrder() == null) {
+				missingOrders.add(orderItemDto);
+			}
+			orderItemDtos.add(orderItemDto);
+		});
+		this.orderItemEnricher.enrichMissing(missingProducts, missingOrders);
+		return orderItemDtos;
+	}
+
+	/**
+	 * Relations without a projection row keep the id-only placeholder to be
+	 * enriched, a deleted one resolves to null like a remote 404.
+	 */
+	private OrderItemDto mapView(final OrderItemView view, final Set<Expand> expand) {
+		final OrderItemDto orderItemDto = OrderItemMappingHelper.map(view.getOrderItem());
+		if (!expand.contains(Expand.PRODUCT)) {
+			orderItemDto.setProductDto(null);
+		} else if (view.getProduct() != null) {
+			orderItemDto.setProductDto(view.getProduct().isDeleted() ? null : ProjectionMappingHelper.map(view.getProduct()));
+		}
+		if (!expand.contains(Expand.ORDER)) {
+			orderItemDto.setOrderDto(null);
+		} else if (view.getOrder() != null) {
+			orderItemDto.setOrderDto(view.getOrder().isDeleted() ? null : ProjectionMappingHelper.map(view.getOrder()));
+		}
+		return orderItemDto;
+	}
+
+	@Override
+	public void exportAll(final Consumer<OrderItemDto> consumer) {
+		log.info("*** Void, service; export all orderItems *");
+		try (final Stream<OrderItem> orderItems = this.orderItemRepository.streamAll()) {
+			orderItems.forEach(o -> {
+				consumer.accept(OrderItemMappingHelper.mapFlat(o));
+				// keep the persistence context from growing with the table
+				this.entityManager.detach(o);
+			});
+		}
+	}
+
+	/**
+	 * Summed by the database, no row is loaded and nothing remote is called.
+	 */
+	@Override
+	public List<ProductQuantityTotal> sumQuantityByProduct(final Instant from, final Instant to) {
+		log.info("*** ProductQuantityTotal List, service; sum orderItem quantities by product *");
+		return this.orderItemRepository.sumQuantityByProduct(from, to);
 	}
 
+	@Override
+	public List<OrderQuantityTotal> sumQuantityByOrder(final Instant from, final Instant to) {
+		log.info("*** OrderQuantityTotal List, service; sum orderItem quantities by order *");
+		return this.orderItemRepository.sumQuantityByOrder(from, to);
+	}
+
+	/**
+	 * With {@code app.persistence.save-mode=upsert} a create of an existing
+	 * item overwrites its quantity in the same statement instead of failing.
+	 */
 	@Override
 	public OrderItemDto save(final OrderItemDto orderItemDto) {
 		log.info("*** OrderItemDto, service; save orderItem *");
-		return OrderItemMappingHelper.map(this.orderItemRepository
-				.save(OrderItemMappingHelper.map(orderItemDto)));
+		OrderItem orderItem = OrderItemMappingHelper.map(orderItemDto);
+		if (this.persistenceProperties.getSaveMode() == SaveMode.UPSERT) {
+			this.orderItemRepository.upsert(orderItem);
+		} else {
+			orderItem = this.orderItemRepository.save(orderItem);
+		}
+		this.orderClient.evict(orderItem.getOrderId());
+		return OrderItemMappingHelper.map(orderItem);
+	}
+
+	/**
+	 * Rows that already exist are found by their exact ids, one query per 250
+	 * items, and the new ones persisted directly, so no SELECT precedes each
+	 * INSERT. Every {@code hibernate.jdbc.batch_size} items the batch is flushed
+	 * and the persistence context cleared.
+	 */
+	@Override
+	public List<BatchItemResult> saveAll(final List<OrderItemDto> orderItemDtos) {
+		log.info("*** BatchItemResult List, service; save orderItems in batch *");
+		final List<OrderItemDto> valid = orderItemDtos.stream()
+				.filter(o -> o != null && o.getProductId() != null && o.getOrderId() != null)
+				.collect(Collectors.toList());
+		final Set<OrderItemId> taken = valid.isEmpty() ? new HashSet<>() : new HashSet<>(this.orderItemRepository.findIdsIn(
+				valid.stream()
+						.map(o -> new OrderItemId(o.getProductId(), o.getOrderId()))
+						.collect(Collectors.toSet())));
+		
+		final int batchSize = this.jdbcBatchSize();
+		final List<BatchItemResult> results = new ArrayList<>(orderItemDtos.size());
+		final Set<Integer> writtenOrderIds = new HashSet<>();
+		int persisted = 0;
+		for (int i = 0; i < orderItemDtos.size(); i++) {
+			final OrderItemDto orderItemDto = orderItemDtos.get(i);
+			if (orderItemDto == null || orderItemDto.getProductId() == null || orderItemDto.getOrderId() == null) {
+				results.add(BatchItemResult.builder()
+						.index(i)
+						.status(BatchItemResult.Status.INVALID)
+						.message("productId and orderId are required")
+						.build());
+				continue;
+			}
+			final BatchItemResult.BatchItemResultBuilder result = BatchItemResult.builder()
+					.index(i)
+					.productId(orderItemDto.getProductId())
+					.orderId(orderItemDto.getOrderId());
+			if (!taken.add(new OrderItemId(orderItemDto.getProductId(), orderItemDto.getOrderId()))) {
+				results.add(result
+						.status(BatchItemResult.Status.DUPLICATE)
+						.message("OrderItem already exists with the same orderId and productId")
+						.build());
+				continue;
+			}
+			this.entityManager.persist(OrderItemMappingHelper.map(orderItemDto));
+			writtenOrderIds.add(orderItemDto.getOrderId());
+			// one JDBC batch per flush, and the persistence context does not grow with the list
+			if (batchSize > 0 && ++persisted % batchSize == 0) {
+				this.entityManager.flush();
+				this.entityManager.clear();
+			}
+			results.add(result
+					.status(BatchItemResult.Status.CREATED)
+					.build());
+		}
+		
+		this.entityManager.flush();
+		writtenOrderIds.forEach(this.orderClient::evict);
+		return results;
+	}
+	
+	/**
+	 * The configured {@code hibernate.jdbc.batch_size}, 0 when batching is off.
+	 */
+	private int jdbcBatchSize() {
+		return this.entityManager.getEntityManagerFactory()
+				.unwrap(SessionFactoryImplementor.class)
+				.getSessionFactoryOptions()
+				.getJdbcBatchSize();
 	}
 
 	@Override
 	public OrderItemDto update(final OrderItemDto orderItemDto) {
 		log.info("*** OrderItemDto, service; update orderItem *");
-		return OrderItemMappingHelper.map(this.orderItemRepository
-				.save(OrderItemMappingHelper.map(orderItemDto)));
+		final OrderItem orderItem = OrderItemMappingHelper.map(orderItemDto);
+		final int updated = this.orderItemRepository
+				.updateOrderedQuantity(orderItem.getProductId(), orderItem.getOrderId(), orderItem.getOrderedQuantity());
+		if (updated == 0) {
+			throw new OrderItemNotFoundException(
+					String.format("OrderItem with id: %s not found", orderItem.getId()));
+		}
+		this.orderClient.evict(orderItem.getOrderId());
+		return OrderItemMappingHelper.map(orderItem);
+	}
+
+	/**
+	 * One UPDATE, the row is only looked at again when nothing was updated, to
+	 * tell a missing item from a refused change.
+	 */
+	@Override
+	public void incrementOrderedQuantity(final OrderItemId orderItemId, final QuantityDeltaDto quantityDeltaDto) {
+		log.info("*** Void, service; increment orderItem quantity *");
+		final int updated = this.orderItemRepository.incrementOrderedQuantity(orderItemId.getProductId(), 
+				orderItemId.getOrderId(), quantityDeltaDto.getDelta(), quantityDeltaDto.getMin(), quantityDeltaDto.getMax());
+		if (updated == 0) {
+			if (!this.orderItemRepository.existsById(orderItemId)) {
+				throw new OrderItemNotFoundException(
+						String.format("OrderItem with id: %s not found", orderItemId));
+			}
+			throw new IllegalStateException(String.format("Quantity change of %d would leave the bounds [%s, %s]", 
+					quantityDeltaDto.getDelta(), quantityDeltaDto.getMin(), quantityDeltaDto.getMax()));
+		}
+		this.orderClient.evict(orderItemId.getOrderId());
 	}
 
 	@Override
 	public void deleteById(final OrderItemId orderItemId) {
 		log.info("*** Void, service; delete orderItem by id *");
 		this.orderItemRepository.deleteById(orderItemId);
+		this.orderClient.evict(orderItemId.getOrderId());
+	}
+
+	@Override
+	public int deleteAllByOrderId(final Integer orderId) {
+		log.info("*** Integer, service; delete orderItems by orderId *");
+		final int deleted = this.orderItemRepository.deleteAllByOrderId(orderId);
+		this.orderClient.evict(orderId);
+		return deleted;
 	}
 
 }
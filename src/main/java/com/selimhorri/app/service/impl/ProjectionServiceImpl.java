@@ -0,0 +1,116 @@
+package com.selimhorri.app.service.impl;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.OrderProjection;
+import com.selimhorri.app.domain.ProductProjection;
+import com.selimhorri.app.dto.event.OrderChangeEvent;
+import com.selimhorri.app.dto.event.ProductChangeEvent;
+import com.selimhorri.app.helper.ProjectionMappingHelper;
+import com.selimhorri.app.repository.OrderProjectionRepository;
+import com.selimhorri.app.repository.ProductProjectionRepository;
+import com.selimhorri.app.service.ProjectionService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies product/order change events to the local projections. An event is
+ * applied only when its version is newer than the stored one, so redelivered
+ * and out of order events are ignored and applying one twice is harmless.
+ * Events are taken from the ingestion endpoint or published in-process
+ * through the {@code ApplicationEventPublisher}.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ProjectionServiceImpl implements ProjectionService {
+	
+	private final ProductProjectionRepository productProjectionRepository;
+	private final OrderProjectionRepository orderProjectionRepository;
+	private final PlatformTransactionManager transactionManager;
+	
+	@Override
+	public boolean apply(final ProductChangeEvent productChangeEvent) {
+		log.info("*** Boolean, service; apply product change event *");
+		return this.applyRetried(() -> this.applyVersioned(productChangeEvent), 
+				"product", productChangeEvent.getProductId());
+	}
+	
+	@Override
+	public boolean apply(final OrderChangeEvent orderChangeEvent) {
+		log.info("*** Boolean, service; apply order change event *");
+		return this.applyRetried(() -> this.applyVersioned(orderChangeEvent), 
+				"order", orderChangeEvent.getOrderId());
+	}
+	
+	@EventListener
+	public void on(final ProductChangeEvent productChangeEvent) {
+		this.apply(productChangeEvent);
+	}
+	
+	@EventListener
+	public void on(final OrderChangeEvent orderChangeEvent) {
+		this.apply(orderChangeEvent);
+	}
+	
+	/**
+	 * The first event of an id has no row to lock, so two of them arriving
+	 * together both insert and one hits the primary key. That one is retried
+	 * once in a new transaction, where it finds the other's row and goes
+	 * through the version check. Inside a caller's transaction there is
+	 * nothing to retry, the caller rolls back.
+	 */
+	private boolean applyRetried(final Supplier<Boolean> apply, final String resource, final Integer id) {
+		final TransactionTemplate transactionTemplate = new TransactionTemplate(this.transactionManager);
+		try {
+			return Boolean.TRUE.equals(transactionTemplate.execute(status -> apply.get()));
+		} catch (DataIntegrityViolationException e) {
+			if (TransactionSynchronizationManager.isActualTransactionActive()) {
+				throw e;
+			}
+			log.debug("Concurrent first event for {} {}, retrying against the stored row", resource, id);
+			return Boolean.TRUE.equals(transactionTemplate.execute(status -> apply.get()));
+		}
+	}
+	
+	private boolean applyVersioned(final ProductChangeEvent productChangeEvent) {
+		final ProductProjection incoming = ProjectionMappingHelper.map(productChangeEvent);
+		final Optional<ProductProjection> current = this.productProjectionRepository
+				.findForUpdate(incoming.getProductId());
+		if (current.isPresent() && current.get().getVersion() >= incoming.getVersion()) {
+			log.debug("Ignoring product {} version {}, already at version {}", 
+					incoming.getProductId(), incoming.getVersion(), current.get().getVersion());
+			return false;
+		}
+		current.ifPresent(p -> incoming.setCreatedAt(p.getCreatedAt()));
+		incoming.setUpdatedAt(Instant.now());
+		this.productProjectionRepository.saveAndFlush(incoming);
+		return true;
+	}
+	
+	private boolean applyVersioned(final OrderChangeEvent orderChangeEvent) {
+		final OrderProjection incoming = ProjectionMappingHelper.map(orderChangeEvent);
+		final Optional<OrderProjection> current = this.orderProjectionRepository
+				.findForUpdate(incoming.getOrderId());
+		if (current.isPresent() && current.get().getVersion() >= incoming.getVersion()) {
+			log.debug("Ignoring order {} version {}, already at version {}", 
+					incoming.getOrderId(), incoming.getVersion(), current.get().getVersion());
+			return false;
+		}
+		current.ifPresent(o -> incoming.setCreatedAt(o.getCreatedAt()));
+		incoming.setUpdatedAt(Instant.now());
+		this.orderProjectionRepository.saveAndFlush(incoming);
+		return true;
+	}
+	
+}
@@ -0,0 +1,248 @@
+package com.selimhorri.app.service.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.client.OrderClient;
+import com.selimhorri.app.config.importer.ImportProperties;
+import com.selimhorri.app.domain.OrderItem;
+import com.selimhorri.app.dto.OrderItemDto;
+import com.selimhorri.app.dto.response.importer.ImportReport;
+import com.selimhorri.app.exception.wrapper.InvalidRequestException;
+import com.selimhorri.app.helper.OrderItemMappingHelper;
+import com.selimhorri.app.repository.OrderItemRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulk load of order items read line by line from CSV or NDJSON, so only one
+ * chunk is held in memory at a time. Each chunk is upserted as one JDBC batch
+ * in its own transaction, which makes a re-run after a failure safe; a chunk
+ * that fails is retried row by row to pin down the bad rows.
+ */
+@Component
+@Slf4j
+public class OrderItemImporter {
+
+	private static final List<String> CSV_COLUMNS = List.of("productid", "orderid", "orderedquantity");
+	private static final char BOM = '\uFEFF';
+
+	private final OrderItemRepository orderItemRepository;
+	private final OrderClient orderClient;
+	private final PlatformTransactionManager transactionManager;
+	private final ObjectMapper objectMapper;
+	private final ImportProperties importProperties;
+	private final Counter importedCounter;
+	private final Counter rejectedCounter;
+
+	public OrderItemImporter(final OrderItemRepository orderItemRepository, final OrderClient orderClient,
+			final PlatformTransactionManager transactionManager, final ObjectMapper objectMapper,
+			final ImportProperties importProperties, final MeterRegistry meterRegistry) {
+		this.orderItemRepository = orderItemRepository;
+		this.orderClient = orderClient;
+		this.transactionManager = transactionManager;
+		this.objectMapper = objectMapper;
+		this.importProperties = importProperties;
+		this.importedCounter = counter("imported", meterRegistry);
+		this.rejectedCounter = counter("rejected", meterRegistry);
+	}
+
+	public ImportReport importAll(final InputStream inputStream, final Format format) {
+
+		final TransactionTemplate transactionTemplate = new TransactionTemplate(this.transactionManager);
+		final ImportReport report = new ImportReport();
+		final List<Row> chunk = new ArrayList<>(this.importProperties.getChunkSize());
+		int[] columns = { 0, 1, 2 };
+		long lineNumber = 0;
+		long chunks = 0;
+		boolean first = true;
+
+		try (final BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				if (first && !line.isEmpty() && line.charAt(0) == BOM) {
+					line = line.substring(1);
+				}
+				if (line.isBlank()) {
+					continue;
+				}
+				if (first) {
+					first = false;
+					if (format == Format.CSV && this.isHeader(line)) {
+						columns = this.columns(line);
+						continue;
+					}
+				}
+				report.setRowsRead(report.getRowsRead() + 1);
+				try {
+					chunk.add(new Row(lineNumber, (format == Format.CSV) ? this.parseCsv(line, columns) : this.parseNdjson(line)));
+				} catch (IllegalArgumentException e) {
+					this.reject(report, lineNumber, e.getMessage());
+				}
+				if (chunk.size() >= this.importProperties.getChunkSize()) {
+					this.write(chunk, report, transactionTemplate);
+					chunk.clear();
+					if (++chunks % this.importProperties.getProgressInterval() == 0) {
+						log.info("*** Import in progress, {} rows read, {} imported, {} rejected *",
+								report.getRowsRead(), report.getRowsImported(), report.getRowsRejected());
+					}
+				}
+			}
+			if (!chunk.isEmpty()) {
+				this.write(chunk, report, transactionTemplate);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		log.info("*** Import done, {} rows read, {} imported, {} rejected *",
+				report.getRowsRead(), report.getRowsImported(), report.getRowsRejected());
+		return report;
+	}
+
+	private void write(final List<Row> chunk, final ImportReport report, final TransactionTemplate transactionTemplate) {
+		final List<OrderItem> orderItems = new ArrayList<>(chunk.size());
+		chunk.forEach(row -> orderItems.add(row.orderItem));
+		try {
+			transactionTemplate.executeWithoutResult(status -> this.orderItemRepository.upsertAll(orderItems));
+			this.imported(report, chunk.size());
+		} catch (RuntimeException e) {
+			log.warn("*** Import chunk ending at line {} failed, retrying row by row: {} *",
+					chunk.get(chunk.size() - 1).line, e.getMessage());
+			for (final Row row : chunk) {
+				try {
+					transactionTemplate.executeWithoutResult(status -> this.orderItemRepository.upsert(row.orderItem));
+					this.imported(report, 1);
+				} catch (RuntimeException rowException) {
+					this.reject(report, row.line, rowException.getMessage());
+				}
+			}
+		}
+		orderItems.stream()
+				.map(OrderItem::getOrderId)
+				.distinct()
+				.forEach(this.orderClient::evict);
+	}
+
+	private void imported(final ImportReport report, final int rows) {
+		report.setRowsImported(report.getRowsImported() + rows);
+		this.importedCounter.increment(rows);
+	}
+
+	private void reject(final ImportReport report, final long line, final String message) {
+		report.setRowsRejected(report.getRowsRejected() + 1);
+		if (report.getErrors().size() < this.importProperties.getMaxReportedErrors()) {
+			report.getErrors().add(new ImportReport.RowError(line, message));
+		} else {
+			report.setErrorsTruncated(true);
+		}
+		this.rejectedCounter.increment();
+	}
+
+	private static Counter counter(final String outcome, final MeterRegistry meterRegistry) {
+		return Counter.builder("orderitem.import.rows")
+				.tag("outcome", outcome)
+				.register(meterRegistry);
+	}
+
+	/**
+	 * A header names at least one of the known columns, anything else on the
+	 * first line is data and gets validated like every other row.
+	 */
+	private boolean isHeader(final String line) {
+		return this.names(line).stream().anyMatch(CSV_COLUMNS::contains);
+	}
+
+	private List<String> names(final String header) {
+		final List<String> names = new ArrayList<>();
+		for (final String name : header.split(",")) {
+			names.add(name.trim().replace("_", "").toLowerCase(Locale.ROOT));
+		}
+		return names;
+	}
+
+	/**
+	 * Positions of productId, orderId and orderedQuantity in the header,
+	 * snake_case names are accepted too.
+	 */
+	private int[] columns(final String header) {
+		final List<String> names = this.names(header);
+		final int[] columns = new int[CSV_COLUMNS.size()];
+		for (int i = 0; i < columns.length; i++) {
+			columns[i] = names.indexOf(CSV_COLUMNS.get(i));
+			if (columns[i] < 0) {
+				throw new InvalidRequestException("CSV header has no " + CSV_COLUMNS.get(i) + " column");
+			}
+		}
+		return columns;
+	}
+
+	private OrderItem parseCsv(final String line, final int[] columns) {
+		final String[] fields = line.split(",", -1);
+		return this.validate(OrderItem.builder()
+				.productId(this.parseInt(fields, columns[0], "productId"))
+				.orderId(this.parseInt(fields, columns[1], "orderId"))
+				.orderedQuantity(this.parseInt(fields, columns[2], "orderedQuantity"))
+				.build());
+	}
+
+	private Integer parseInt(final String[] fields, final int column, final String name) {
+		if (column >= fields.length || fields[column].isBlank()) {
+			return null;
+		}
+		try {
+			return Integer.valueOf(fields[column].trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException(name + " is not a number: " + fields[column]);
+		}
+	}
+
+	private OrderItem parseNdjson(final String line) {
+		try {
+			return this.validate(OrderItemMappingHelper.map(this.objectMapper.readValue(line, OrderItemDto.class)));
+		} catch (JsonProcessingException e) {
+			throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+		}
+	}
+
+	private OrderItem validate(final OrderItem orderItem) {
+		if (orderItem.getProductId() == null || orderItem.getOrderId() == null) {
+			throw new IllegalArgumentException("productId and orderId are required");
+		}
+		if (orderItem.getOrderedQuantity() != null && orderItem.getOrderedQuantity() < 0) {
+			throw new IllegalArgumentException("orderedQuantity must not be negative");
+		}
+		return orderItem;
+	}
+
+	@AllArgsConstructor
+	private static final class Row {
+
+		private final long line;
+		private final OrderItem orderItem;
+
+	}
+
+	public enum Format {
+		CSV,
+		NDJSON
+	}
+
+}
@@ -0,0 +1,27 @@
+
+CREATE TABLE product_projections (
+	product_id INT(11) NOT NULL,
+	product_title VARCHAR(255),
+	image_url VARCHAR(255),
+	sku VARCHAR(255),
+	price_unit DOUBLE,
+	quantity INT(11),
+	version BIGINT NOT NULL,
+	deleted BOOLEAN DEFAULT FALSE NOT NULL,
+	created_at TIMESTAMP DEFAULT LOCALTIMESTAMP NOT NULL NULL_TO_DEFAULT,
+	updated_at TIMESTAMP,
+	PRIMARY KEY (product_id)
+);
+
+CREATE TABLE order_projections (
+	order_id INT(11) NOT NULL,
+	order_date TIMESTAMP,
+	order_desc VARCHAR(255),
+	order_fee DOUBLE,
+	version BIGINT NOT NULL,
+	deleted BOOLEAN DEFAULT FALSE NOT NULL,
+	created_at TIMESTAMP DEFAULT LOCALTIMESTAMP NOT NULL NULL_TO_DEFAULT,
+	updated_at TIMESTAMP,
+	PRIMARY KEY (order_id)
+);
+
@@ -0,0 +1,7 @@
+
+DROP INDEX idx_order_items_order_id;
+
+CREATE INDEX idx_order_items_order_id_quantity ON order_items (order_id, ordered_quantity);
+
+CREATE INDEX idx_order_items_created_at ON order_items (created_at, product_id, order_id, ordered_quantity);
+
@@ -0,0 +1,38 @@
+package com.selimhorri.app.client;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+@DisplayName("ClientErrorPredicate Unit Tests")
+class ClientErrorPredicateTest {
+	
+	private final ClientErrorPredicate clientErrorPredicate = new ClientErrorPredicate();
+	
+	@Test
+	@DisplayName("Should ignore 4xx answers from both clients")
+	void testClientErrors() {
+		assertTrue(clientErrorPredicate.test(HttpClientErrorException.create(HttpStatus.FORBIDDEN, "Forbidden", 
+				HttpHeaders.EMPTY, null, null)));
+		assertTrue(clientErrorPredicate.test(WebClientResponseException.create(HttpStatus.BAD_REQUEST.value(), 
+				"Bad Request", HttpHeaders.EMPTY, null, null)));
+		assertTrue(clientErrorPredicate.test(WebClientResponseException.create(HttpStatus.NOT_FOUND.value(), 
+				"Not Found", HttpHeaders.EMPTY, null, null)));
+	}
+	
+	@Test
+	@DisplayName("Should count server errors and I/O failures")
+	void testServerErrors() {
+		assertFalse(clientErrorPredicate.test(WebClientResponseException.create(HttpStatus.SERVICE_UNAVAILABLE.value(), 
+				"Service Unavailable", HttpHeaders.EMPTY, null, null)));
+		assertFalse(clientErrorPredicate.test(new ResourceAccessException("Read timed out")));
+	}
+	
+}
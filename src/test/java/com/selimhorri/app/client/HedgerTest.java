@@ -0,0 +1,242 @@
+package com.selimhorri.app.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.selimhorri.app.config.client.HedgingProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("Hedger Unit Tests")
+class HedgerTest {
+	
+	private static final int WARM_UP = 20;
+	
+	private HedgingProperties hedgingProperties;
+	private MeterRegistry meterRegistry;
+	private ExecutorService executor;
+	private AtomicInteger calls;
+	
+	@BeforeEach
+	void setUp() {
+		hedgingProperties = new HedgingProperties();
+		hedgingProperties.setEnabled(true);
+		hedgingProperties.setMinSamples(WARM_UP);
+		hedgingProperties.setMinDelay(Duration.ofMillis(20));
+		hedgingProperties.setBudgetRatio(1.0);
+		meterRegistry = new SimpleMeterRegistry();
+		executor = Executors.newCachedThreadPool();
+		calls = new AtomicInteger();
+	}
+	
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+	
+	@Test
+	@DisplayName("Should answer with the duplicate call when the first one is slow")
+	void testExecute_HedgeWins() {
+		// Given
+		final Hedger hedger = new Hedger("productService", hedgingProperties, executor, meterRegistry);
+		warmUp(hedger);
+		
+		// When
+		String result = hedger.execute(slowOnCall(WARM_UP + 1));
+		
+		// Then
+		assertEquals("fast", result);
+		assertEquals(1.0, meterRegistry.get("downstream.hedge.sent").counter().count());
+		assertEquals(1.0, meterRegistry.get("downstream.hedge.won").counter().count());
+	}
+	
+	@Test
+	@DisplayName("Should not hedge once the budget is spent")
+	void testExecute_BudgetExhausted() {
+		// Given
+		hedgingProperties.setBudgetRatio(0.0);
+		final Hedger hedger = new Hedger("productService", hedgingProperties, executor, meterRegistry);
+		warmUp(hedger);
+		
+		// When
+		String result = hedger.execute(slowOnCall(WARM_UP + 1));
+		
+		// Then
+		assertEquals("slow", result);
+		assertEquals(0.0, meterRegistry.get("downstream.hedge.sent").counter().count());
+		assertEquals(1.0, meterRegistry.get("downstream.hedge.throttled").counter().count());
+	}
+	
+	@Test
+	@DisplayName("Should not hedge before enough latencies are known")
+	void testExecute_NoHedgeWithoutSamples() {
+		// Given
+		final Hedger hedger = new Hedger("productService", hedgingProperties, executor, meterRegistry);
+		
+		// When
+		String result = hedger.execute(slowOnCall(1));
+		
+		// Then
+		assertEquals("slow", result);
+		assertEquals(1, calls.get());
+	}
+	
+	@Test
+	@DisplayName("Should propagate the failure when every call fails")
+	void testExecute_AllCallsFail() {
+		// Given
+		final Hedger hedger = new Hedger("productService", hedgingProperties, executor, meterRegistry);
+		warmUp(hedger);
+		
+		// When & Then
+		IllegalStateException exception = assertThrows(IllegalStateException.class, () -> hedger.execute(() -> {
+			throw new IllegalStateException("product-service down");
+		}));
+		assertEquals("product-service down", exception.getMessage());
+	}
+	
+	@Test
+	@DisplayName("Should cancel the duplicate call when the first one answers first")
+	void testExecute_LoserCancelled() throws Exception {
+		// Given
+		final Hedger hedger = new Hedger("productService", hedgingProperties, executor, meterRegistry);
+		warmUp(hedger);
+		final CountDownLatch hedgeInterrupted = new CountDownLatch(1);
+		
+		// When
+		String result = hedger.execute(() -> {
+			final boolean primary = calls.incrementAndGet() == WARM_UP + 1;
+			try {
+				Thread.sleep(primary ? 100 : 2000);
+			} catch (InterruptedException e) {
+				hedgeInterrupted.countDown();
+				return "interrupted";
+			}
+			return primary ? "primary" : "hedge";
+		});
+		
+		// Then
+		assertEquals("primary", result);
+		assertTrue(hedgeInterrupted.await(1, TimeUnit.SECONDS));
+		assertEquals(0.0, meterRegistry.get("downstream.hedge.won").counter().count());
+		assertFalse(Thread.currentThread().isInterrupted());
+	}
+	
+	@Test
+	@DisplayName("Should answer with the duplicate while the first call ignores interruption")
+	void testExecute_HedgeWinsOverUninterruptibleCall() {
+		// Given
+		final Hedger hedger = new Hedger("productService", hedgingProperties, executor, meterRegistry);
+		warmUp(hedger);
+		final CountDownLatch release = new CountDownLatch(1);
+		
+		try {
+			// When
+			String result = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> hedger.execute(() -> {
+				if (calls.incrementAndGet() != WARM_UP + 1) {
+					return "fast";
+				}
+				awaitUninterruptibly(release);
+				return "stuck";
+			}));
+			
+			// Then
+			assertEquals("fast", result);
+			assertEquals(1.0, meterRegistry.get("downstream.hedge.won").counter().count());
+		} finally {
+			release.countDown();
+		}
+	}
+	
+	@Test
+	@DisplayName("Should skip the duplicate call when the hedging pool is full")
+	void testExecute_PoolFull() {
+		// Given: the first call takes the only pool thread
+		final ExecutorService singleThread = new ThreadPoolExecutor(0, 1, 60L, TimeUnit.SECONDS, 
+				new SynchronousQueue<>());
+		final Hedger hedger = new Hedger("productService", hedgingProperties, singleThread, meterRegistry);
+		warmUp(hedger);
+		final double rejectedBefore = meterRegistry.get("downstream.hedge.rejected").counter().count();
+		
+		// When
+		String result = hedger.execute(slowOnCall(WARM_UP + 1));
+		
+		// Then
+		singleThread.shutdown();
+		assertEquals("slow", result);
+		assertEquals(0.0, meterRegistry.get("downstream.hedge.sent").counter().count());
+		assertEquals(1.0, meterRegistry.get("downstream.hedge.rejected").counter().count() - rejectedBefore);
+	}
+	
+	@Test
+	@DisplayName("Should run the call unhedged on the caller thread when the pool is full")
+	void testExecute_PoolFullRunsOnCaller() {
+		// Given
+		final CountDownLatch release = new CountDownLatch(1);
+		final ExecutorService singleThread = new ThreadPoolExecutor(0, 1, 60L, TimeUnit.SECONDS, 
+				new SynchronousQueue<>());
+		singleThread.execute(() -> awaitUninterruptibly(release));
+		final Hedger hedger = new Hedger("productService", hedgingProperties, singleThread, meterRegistry);
+		final Thread caller = Thread.currentThread();
+		
+		// When
+		Thread result = hedger.execute(Thread::currentThread);
+		
+		// Then
+		release.countDown();
+		singleThread.shutdown();
+		assertEquals(caller, result);
+		assertEquals(1.0, meterRegistry.get("downstream.hedge.rejected").counter().count());
+	}
+	
+	private void warmUp(final Hedger hedger) {
+		for (int i = 0; i < WARM_UP; i++) {
+			hedger.execute(slowOnCall(-1));
+		}
+	}
+	
+	private static void awaitUninterruptibly(final CountDownLatch latch) {
+		while (true) {
+			try {
+				latch.await();
+				return;
+			} catch (InterruptedException e) {
+				// like a blocking socket read, an interrupt does not end the wait
+			}
+		}
+	}
+	
+	private Supplier<String> slowOnCall(final int slowCall) {
+		return () -> {
+			if (calls.incrementAndGet() != slowCall) {
+				return "fast";
+			}
+			try {
+				Thread.sleep(500);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return "slow";
+		};
+	}
+	
+}
@@ -0,0 +1,176 @@
+package com.selimhorri.app.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.selimhorri.app.config.client.HedgingProperties;
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.dto.ProductDto;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductClient Unit Tests")
+class ProductClientTest {
+	
+	private static final String PRODUCT_URL = AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/100";
+	
+	@Mock
+	private RestTemplate restTemplate;
+	
+	private MeterRegistry meterRegistry;
+	private CircuitBreakerRegistry circuitBreakerRegistry;
+	private ProductClient productClient;
+	private ProductDto testProductDto;
+	
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+		final Cache<Integer, ProductDto> productCache = Caffeine.newBuilder()
+				.maximumSize(100)
+				.expireAfterWrite(Duration.ofMinutes(10))
+				.recordStats()
+				.build();
+		final Cache<Integer, Boolean> missingProductCache = Caffeine.newBuilder()
+				.expireAfterWrite(Duration.ofSeconds(30))
+				.recordStats()
+				.build();
+		productClient = new ProductClient(restTemplate, WebClient.builder(),
+				CaffeineCacheMetrics.monitor(meterRegistry, productCache, "products"),
+				new StaleStore<>(Caffeine.newBuilder().build()), 
+				new NegativeCache<>(CaffeineCacheMetrics.monitor(meterRegistry, missingProductCache, "products-missing")),
+				circuitBreakerRegistry, new HedgerRegistry(new HedgingProperties(), meterRegistry));
+		
+		testProductDto = ProductDto.builder()
+				.productId(100)
+				.productTitle("Test Product")
+				.priceUnit(99.99)
+				.build();
+	}
+	
+	@Test
+	@DisplayName("Should serve repeated lookups from the cache")
+	void testFindById_CachesProduct() {
+		// Given
+		when(restTemplate.getForObject(eq(PRODUCT_URL), eq(ProductDto.class))).thenReturn(testProductDto);
+		
+		// When
+		productClient.findById(100);
+		ProductDto result = productClient.findById(100);
+		
+		// Then
+		assertEquals("Test Product", result.getProductTitle());
+		verify(restTemplate, times(1)).getForObject(eq(PRODUCT_URL), eq(ProductDto.class));
+		assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "products").tag("result", "hit")
+				.functionCounter().count());
+		assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "products").tag("result", "miss")
+				.functionCounter().count());
+	}
+	
+	@Test
+	@DisplayName("Should not cache an empty product-service response")
+	void testFindById_DoesNotCacheNull() {
+		// Given
+		when(restTemplate.getForObject(eq(PRODUCT_URL), eq(ProductDto.class))).thenReturn(null);
+		
+		// When
+		productClient.findById(100);
+		ProductDto result = productClient.findById(100);
+		
+		// Then
+		assertNull(result);
+		verify(restTemplate, times(2)).getForObject(eq(PRODUCT_URL), eq(ProductDto.class));
+	}
+	
+	@Test
+	@DisplayName("Should serve the last known product while the circuit breaker is open")
+	void testFindById_ServesStaleWhenOpen() {
+		// Given
+		when(restTemplate.getForObject(eq(PRODUCT_URL), eq(ProductDto.class))).thenReturn(testProductDto);
+		productClient.findById(100);
+		productClient.evict(100);
+		circuitBreakerRegistry.circuitBreaker(ProductClient.DOWNSTREAM).transitionToOpenState();
+		
+		// When
+		ProductDto result = productClient.findById(100);
+		
+		// Then
+		assertEquals("Test Product", result.getProductTitle());
+		verify(restTemplate, times(1)).getForObject(eq(PRODUCT_URL), eq(ProductDto.class));
+	}
+	
+	@Test
+	@DisplayName("Should fail fast while the circuit breaker is open and nothing is known")
+	void testFindById_FailsFastWhenOpenWithoutStale() {
+		// Given
+		circuitBreakerRegistry.circuitBreaker(ProductClient.DOWNSTREAM).transitionToOpenState();
+		
+		// When & Then
+		assertThrows(CallNotPermittedException.class, () -> productClient.findById(100));
+		verify(restTemplate, times(0)).getForObject(eq(PRODUCT_URL), eq(ProductDto.class));
+	}
+	
+	@Test
+	@DisplayName("Should remember a product-service 404 and not ask again")
+	void testFindById_RemembersMissingProduct() {
+		// Given
+		when(restTemplate.getForObject(eq(PRODUCT_URL), eq(ProductDto.class)))
+				.thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", HttpHeaders.EMPTY, null, null));
+		
+		// When
+		ProductDto first = productClient.findById(100);
+		ProductDto second = productClient.findById(100);
+		
+		// Then
+		assertNull(first);
+		assertNull(second);
+		verify(restTemplate, times(1)).getForObject(eq(PRODUCT_URL), eq(ProductDto.class));
+		assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "products-missing").tag("result", "hit")
+				.functionCounter().count());
+	}
+	
+	@Test
+	@DisplayName("Should forget a missing product when it is evicted")
+	void testEvict_ForgetsMissingProduct() {
+		// Given
+		when(restTemplate.getForObject(eq(PRODUCT_URL), eq(ProductDto.class)))
+				.thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", HttpHeaders.EMPTY, null, null))
+				.thenReturn(testProductDto);
+		productClient.findById(100);
+		
+		// When
+		productClient.evict(100);
+		ProductDto result = productClient.findById(100);
+		
+		// Then
+		assertEquals("Test Product", result.getProductTitle());
+		verify(restTemplate, times(2)).getForObject(eq(PRODUCT_URL), eq(ProductDto.class));
+	}
+	
+}
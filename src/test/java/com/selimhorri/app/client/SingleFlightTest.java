@@ -0,0 +1,92 @@
+package com.selimhorri.app.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("SingleFlight Unit Tests")
+class SingleFlightTest {
+	
+	private static final int CALLERS = 8;
+	
+	private SingleFlight<Integer, String> singleFlight;
+	private ExecutorService callers;
+	
+	@BeforeEach
+	void setUp() {
+		singleFlight = new SingleFlight<>();
+		callers = Executors.newFixedThreadPool(CALLERS);
+	}
+	
+	@AfterEach
+	void tearDown() {
+		callers.shutdownNow();
+	}
+	
+	@Test
+	@DisplayName("Should share one in-flight call between concurrent callers of the same key")
+	void testExecute_CoalescesConcurrentCalls() throws Exception {
+		// Given
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		
+		// When
+		List<Future<String>> results = new ArrayList<>();
+		for (int i = 0; i < CALLERS; i++) {
+			results.add(callers.submit(() -> singleFlight.execute(100, () -> {
+				calls.incrementAndGet();
+				await(release);
+				return "product-100";
+			})));
+		}
+		while (singleFlight.inFlight() == 0) {
+			Thread.onSpinWait();
+		}
+		TimeUnit.MILLISECONDS.sleep(100);
+		release.countDown();
+		
+		// Then
+		for (Future<String> result : results) {
+			assertEquals("product-100", result.get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(1, calls.get());
+		assertEquals(0, singleFlight.inFlight());
+	}
+	
+	@Test
+	@DisplayName("Should propagate the failure of the shared call and allow a retry")
+	void testExecute_PropagatesFailure() {
+		// When & Then
+		IllegalStateException exception = assertThrows(
+				IllegalStateException.class,
+				() -> singleFlight.execute(100, () -> {
+					throw new IllegalStateException("product-service down");
+				}));
+		
+		assertEquals("product-service down", exception.getMessage());
+		assertEquals(0, singleFlight.inFlight());
+		assertEquals("product-100", singleFlight.execute(100, () -> "product-100"));
+	}
+	
+	private static void await(final CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+}
@@ -0,0 +1,96 @@
+package com.selimhorri.app.config.deadline;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.selimhorri.app.client.RequestDeadline;
+
+@DisplayName("DeadlineFilter Unit Tests")
+class DeadlineFilterTest {
+	
+	private DeadlineFilter deadlineFilter;
+	private AtomicReference<Duration> remaining;
+	
+	@BeforeEach
+	void setUp() {
+		final DeadlineProperties deadlineProperties = new DeadlineProperties();
+		deadlineProperties.setDefaultTimeout(Duration.ofSeconds(30));
+		deadlineProperties.setMaxTimeout(Duration.ofSeconds(60));
+		deadlineFilter = new DeadlineFilter(deadlineProperties);
+		remaining = new AtomicReference<>();
+	}
+	
+	@Test
+	@DisplayName("Should take the request budget from the X-Request-Timeout header")
+	void testDoFilter_UsesHeader() throws Exception {
+		// Given
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/shippings");
+		request.addHeader(RequestDeadline.HEADER, "250");
+		
+		// When
+		deadlineFilter.doFilter(request, new MockHttpServletResponse(), captureRemaining());
+		
+		// Then
+		assertTrue(remaining.get().toMillis() <= 250);
+		assertTrue(remaining.get().toMillis() > 0);
+		assertFalse(RequestDeadline.current().isPresent());
+	}
+	
+	@Test
+	@DisplayName("Should fall back to the default budget on a missing or invalid header")
+	void testDoFilter_DefaultBudget() throws Exception {
+		// Given
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/shippings");
+		request.addHeader(RequestDeadline.HEADER, "soon");
+		
+		// When
+		deadlineFilter.doFilter(request, new MockHttpServletResponse(), captureRemaining());
+		
+		// Then
+		assertTrue(remaining.get().compareTo(Duration.ofSeconds(30)) <= 0);
+		assertTrue(remaining.get().compareTo(Duration.ofSeconds(29)) > 0);
+	}
+	
+	@Test
+	@DisplayName("Should cap the requested budget at the configured maximum")
+	void testDoFilter_CapsHeader() throws Exception {
+		// Given
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/shippings");
+		request.addHeader(RequestDeadline.HEADER, "3600000");
+		
+		// When
+		deadlineFilter.doFilter(request, new MockHttpServletResponse(), captureRemaining());
+		
+		// Then
+		assertTrue(remaining.get().compareTo(Duration.ofSeconds(60)) <= 0);
+	}
+	
+	private MockFilterChain captureRemaining() {
+		return new MockFilterChain(new HttpServlet() {
+			
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected void service(final HttpServletRequest req, 
+					final HttpServletResponse resp) {
+				remaining.set(RequestDeadline.current().orElseThrow().remaining());
+			}
+			
+		});
+	}
+	
+}
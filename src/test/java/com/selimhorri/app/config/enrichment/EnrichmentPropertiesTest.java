@@ -0,0 +1,35 @@
+package com.selimhorri.app.config.enrichment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.EnumSet;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import com.selimhorri.app.service.enrichment.Expand;
+
+@DisplayName("EnrichmentProperties Binding Tests")
+class EnrichmentPropertiesTest {
+	
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+			.withUserConfiguration(EnrichmentConfig.class);
+	
+	@Test
+	@DisplayName("Should bind default-expand=none to no expansions")
+	void testDefaultExpand_None() {
+		contextRunner.withPropertyValues("app.enrichment.default-expand=none")
+				.run(context -> assertTrue(context.getBean(EnrichmentProperties.class).getDefaultExpand().isEmpty()));
+	}
+	
+	@Test
+	@DisplayName("Should bind a comma separated default-expand like the query parameter")
+	void testDefaultExpand_List() {
+		contextRunner.withPropertyValues("app.enrichment.default-expand=Product, order")
+				.run(context -> assertEquals(EnumSet.allOf(Expand.class), 
+						context.getBean(EnrichmentProperties.class).getDefaultExpand()));
+	}
+	
+}
@@ -1,15 +1,23 @@
 package com.selimhorri.app.integration;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,22 +25,41 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.selimhorri.app.client.OrderClient;
+import com.selimhorri.app.client.ProductClient;
+import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.domain.OrderItem;
 import com.selimhorri.app.domain.id.OrderItemId;
 import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.OrderItemDto;
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.QuantityDeltaDto;
+import com.selimhorri.app.dto.event.OrderChangeEvent;
+import com.selimhorri.app.dto.event.ProductChangeEvent;
 import com.selimhorri.app.repository.OrderItemRepository;
+import com.selimhorri.app.service.OrderItemService;
+import com.selimhorri.app.service.enrichment.Expand;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -53,9 +80,18 @@ class OrderItemServiceIntegrationTest {
 	@Autowired
 	private OrderItemRepository orderItemRepository;
 
+	@Autowired
+	private OrderItemService orderItemService;
+
 	@Autowired
 	private ObjectMapper objectMapper;
 
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private CircuitBreakerRegistry circuitBreakerRegistry;
+
 	@MockBean
 	private RestTemplate restTemplate;
 
@@ -194,6 +230,26 @@ class OrderItemServiceIntegrationTest {
 		assertTrue(orderItemRepository.findById(orderItemId).isEmpty());
 	}
 
+	@Test
+	@DisplayName("Should delete every item of an order and return the count")
+	void testDeleteOrderItemsByOrderId() throws Exception {
+		// Given
+		orderItemRepository.save(OrderItem.builder().orderId(1).productId(100).orderedQuantity(5).build());
+		orderItemRepository.save(OrderItem.builder().orderId(1).productId(101).orderedQuantity(2).build());
+		orderItemRepository.save(OrderItem.builder().orderId(2).productId(100).orderedQuantity(1).build());
+
+		// When & Then
+		mockMvc.perform(delete("/api/shippings/orders/{orderId}", 1))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$").value(2));
+		mockMvc.perform(delete("/api/shippings/orders/{orderId}", 1))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$").value(0));
+
+		assertEquals(1, orderItemRepository.count());
+		assertTrue(orderItemRepository.findById(new OrderItemId(101, 1)).isEmpty());
+	}
+
 	@Test
 	@DisplayName("Should return 400 error when order item not found")
 	void testGetOrderItemById_NotFound() throws Exception {
@@ -278,6 +334,452 @@ class OrderItemServiceIntegrationTest {
 				.andExpect(jsonPath("$.collection[1].orderId").value(1));
 	}
 
+	@Test
+	@DisplayName("Should page through order items with an opaque keyset cursor")
+	void testGetOrderItemsPage_KeysetCursor() throws Exception {
+		// Given
+		orderItemRepository.save(OrderItem.builder().orderId(1).productId(100).orderedQuantity(5).build());
+		orderItemRepository.save(OrderItem.builder().orderId(2).productId(100).orderedQuantity(1).build());
+		orderItemRepository.save(OrderItem.builder().orderId(1).productId(200).orderedQuantity(3).build());
+
+		// When
+		String firstPage = mockMvc.perform(get("/api/shippings").param("limit", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.collection.length()").value(2))
+				.andExpect(jsonPath("$.collection[0].productId").value(100))
+				.andExpect(jsonPath("$.collection[0].orderId").value(1))
+				.andExpect(jsonPath("$.collection[1].productId").value(100))
+				.andExpect(jsonPath("$.collection[1].orderId").value(2))
+				.andExpect(jsonPath("$.next").exists())
+				.andReturn()
+				.getResponse()
+				.getContentAsString();
+		String next = objectMapper.readTree(firstPage).get("next").asText();
+
+		// Then
+		mockMvc.perform(get("/api/shippings").param("limit", "2").param("next", next))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.collection.length()").value(1))
+				.andExpect(jsonPath("$.collection[0].productId").value(200))
+				.andExpect(jsonPath("$.collection[0].product").exists())
+				.andExpect(jsonPath("$.next").doesNotExist());
+	}
+
+	@Test
+	@DisplayName("Should return 400 error for a malformed page cursor")
+	void testGetOrderItemsPage_InvalidCursor() throws Exception {
+		// When & Then
+		mockMvc.perform(get("/api/shippings").param("limit", "2").param("next", "not-a-cursor"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	@DisplayName("Should export every order item row without enrichment")
+	void testExportAllOrderItems() {
+		// Given
+		orderItemRepository.save(OrderItem.builder().orderId(1).productId(100).orderedQuantity(5).build());
+		orderItemRepository.save(OrderItem.builder().orderId(2).productId(200).orderedQuantity(10).build());
+		List<OrderItemDto> exported = new ArrayList<>();
+
+		// When
+		orderItemService.exportAll(exported::add);
+
+		// Then
+		assertEquals(2, exported.size());
+		exported.forEach(o -> {
+			assertNotNull(o.getOrderedQuantity());
+			assertNull(o.getProductDto());
+			assertNull(o.getOrderDto());
+		});
+		verify(restTemplate, never()).getForObject(any(String.class), eq(ProductDto.class));
+	}
+
+	@Test
+	@DisplayName("Should retrieve the order items of one order via REST API")
+	void testGetOrderItemsByOrderId() throws Exception {
+		// Given
+		orderItemRepository.save(OrderItem.builder().orderId(1).productId(200).orderedQuantity(5).build());
+		orderItemRepository.save(OrderItem.builder().orderId(1).productId(100).orderedQuantity(1).build());
+		orderItemRepository.save(OrderItem.builder().orderId(2).productId(100).orderedQuantity(3).build());
+
+		// When & Then
+		mockMvc.perform(get("/api/shippings/orders/{orderId}", 1))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.collection.length()").value(2))
+				.andExpect(jsonPath("$.collection[0].productId").value(100))
+				.andExpect(jsonPath("$.collection[1].productId").value(200))
+				.andExpect(jsonPath("$.collection[0].order.orderId").value(1));
+	}
+
+	@Test
+	@DisplayName("Should look up several order items in one request")
+	void testLookupOrderItems() throws Exception {
+		// Given
+		orderItemRepository.save(OrderItem.builder().orderId(1).productId(100).orderedQuantity(5).build());
+		orderItemRepository.save(OrderItem.builder().orderId(2).productId(200).orderedQuantity(1).build());
+		List<OrderItemId> ids = List.of(new OrderItemId(200, 2), new OrderItemId(999, 9), 
+				new OrderItemId(100, 1), new OrderItemId(200, 2));
+
+		// When & Then
+		mockMvc.perform(post("/api/shippings/lookup")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(ids)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.collection.length()").value(2))
+				.andExpect(jsonPath("$.collection[0].productId").value(200))
+				.andExpect(jsonPath("$.collection[1].productId").value(100))
+				.andExpect(jsonPath("$.collection[1].product.productTitle").value("Test Product"));
+	}
+
+	@Test
+	@DisplayName("Should look up more ids than fit in one IN list chunk")
+	void testLookupOrderItems_Chunked() {
+		// Given
+		List<OrderItemDto> batch = new ArrayList<>();
+		List<OrderItemId> ids = new ArrayList<>();
+		for (int productId = 1; productId <= 600; productId++) {
+			batch.add(OrderItemDto.builder().orderId(productId % 3).productId(productId).orderedQuantity(1).build());
+			ids.add(new OrderItemId(productId, productId % 3));
+		}
+		orderItemService.saveAll(batch);
+
+		// When
+		List<OrderItemDto> result = orderItemService.findAllById(ids, Expand.parse("none"));
+
+		// Then
+		assertEquals(600, result.size());
+		assertEquals(1, result.get(0).getProductId());
+		assertEquals(600, result.get(599).getProductId());
+	}
+
+	@Test
+	@DisplayName("Should keep 4xx answers out of both breakers on either client")
+	void testCircuitBreakers_IgnoreClientErrors() {
+		for (String name : List.of(ProductClient.DOWNSTREAM, OrderClient.DOWNSTREAM)) {
+			Predicate<Throwable> ignored = circuitBreakerRegistry.circuitBreaker(name)
+					.getCircuitBreakerConfig()
+					.getIgnoreExceptionPredicate();
+			assertTrue(ignored.test(HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request",
+					HttpHeaders.EMPTY, null, null)));
+			assertTrue(ignored.test(WebClientResponseException.create(HttpStatus.FORBIDDEN.value(), "Forbidden",
+					HttpHeaders.EMPTY, null, null)));
+			assertFalse(ignored.test(WebClientResponseException.create(HttpStatus.BAD_GATEWAY.value(), "Bad Gateway",
+					HttpHeaders.EMPTY, null, null)));
+		}
+	}
+
+	@Test
+	@DisplayName("Should find only the exact id pairs that exist")
+	void testFindIdsIn_ExactPairs() {
+		// Given
+		orderItemRepository.save(OrderItem.builder().orderId(1).productId(100).orderedQuantity(5).build());
+		orderItemRepository.save(OrderItem.builder().orderId(2).productId(200).orderedQuantity(1).build());
+
+		// When
+		List<OrderItemId> found = orderItemRepository.findIdsIn(List.of(
+				new OrderItemId(100, 1),
+				new OrderItemId(200, 1),
+				new OrderItemId(100, 2)));
+
+		// Then
+		assertEquals(List.of(new OrderItemId(100, 1)), found);
+	}
+
+	@Test
+	@DisplayName("Should change the quantity in place within its bounds via REST API")
+	void testIncrementQuantity() throws Exception {
+		// Given
+		createOrderItemInDatabase();
+
+		// When & Then
+		mockMvc.perform(patch("/api/shippings/{orderId}/{productId}/quantity", 1, 100)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(QuantityDeltaDto.builder().delta(3).max(10).build())))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$").value(true));
+		mockMvc.perform(patch("/api/shippings/{orderId}/{productId}/quantity", 1, 100)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(QuantityDeltaDto.builder().delta(3).max(10).build())))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(patch("/api/shippings/{orderId}/{productId}/quantity", 9, 999)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(QuantityDeltaDto.builder().delta(1).build())))
+				.andExpect(status().isBadRequest());
+
+		assertEquals(8, orderItemRepository.findById(new OrderItemId(100, 1)).orElseThrow().getOrderedQuantity());
+	}
+
+	@Test
+	@DisplayName("Should upsert an order item with a native MERGE and stamp updated_at")
+	void testUpsertOrderItem() {
+		// When
+		int inserted = orderItemRepository.upsert(OrderItem.builder().orderId(7).productId(700).orderedQuantity(2).build());
+		int merged = orderItemRepository.upsert(OrderItem.builder().orderId(7).productId(700).orderedQuantity(4).build());
+
+		// Then
+		assertEquals(1, inserted);
+		assertEquals(1, merged);
+		assertEquals(1, orderItemRepository.count());
+		OrderItem upserted = orderItemRepository.findById(new OrderItemId(700, 7)).orElseThrow();
+		assertEquals(4, upserted.getOrderedQuantity());
+		assertNotNull(upserted.getUpdatedAt());
+	}
+
+	@Test
+	@DisplayName("Should report the rows written by a batch upsert")
+	void testUpsertOrderItems_RowCount() {
+		// When
+		int written = orderItemRepository.upsertAll(List.of(
+				OrderItem.builder().orderId(7).productId(700).orderedQuantity(2).build(),
+				OrderItem.builder().orderId(7).productId(701).orderedQuantity(1).build(),
+				OrderItem.builder().orderId(7).productId(700).orderedQuantity(5).build()));
+
+		// Then
+		assertEquals(3, written);
+		assertEquals(2, orderItemRepository.count());
+		assertEquals(5, orderItemRepository.findById(new OrderItemId(700, 7)).orElseThrow().getOrderedQuantity());
+	}
+
+	@Test
+	@DisplayName("Should create a batch of order items and report each one")
+	void testCreateOrderItemsBatch() throws Exception {
+		// Given
+		createOrderItemInDatabase();
+		List<OrderItemDto> batch = List.of(
+				OrderItemDto.builder().orderId(1).productId(100).orderedQuantity(5).build(),
+				OrderItemDto.builder().orderId(2).productId(200).orderedQuantity(1).build(),
+				OrderItemDto.builder().orderId(2).productId(200).orderedQuantity(2).build(),
+				OrderItemDto.builder().orderId(3).orderedQuantity(3).build(),
+				OrderItemDto.builder().orderId(3).productId(300).orderedQuantity(4).build());
+
+		// When & Then
+		mockMvc.perform(post("/api/shippings/batch")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(batch)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.collection.length()").value(5))
+				.andExpect(jsonPath("$.collection[0].status").value("DUPLICATE"))
+				.andExpect(jsonPath("$.collection[1].status").value("CREATED"))
+				.andExpect(jsonPath("$.collection[2].status").value("DUPLICATE"))
+				.andExpect(jsonPath("$.collection[3].status").value("INVALID"))
+				.andExpect(jsonPath("$.collection[4].status").value("CREATED"))
+				.andExpect(jsonPath("$.collection[4].index").value(4));
+
+		assertEquals(3, orderItemRepository.count());
+		assertEquals(1, orderItemRepository.findById(new OrderItemId(200, 2)).orElseThrow().getOrderedQuantity());
+	}
+
+	@Test
+	@DisplayName("Should reject a batch larger than the limit")
+	void testCreateOrderItemsBatch_TooLarge() throws Exception {
+		// Given
+		List<OrderItemDto> batch = new ArrayList<>();
+		for (int i = 0; i <= AppConstant.MAX_BATCH_SIZE; i++) {
+			batch.add(OrderItemDto.builder().orderId(1).productId(i).orderedQuantity(1).build());
+		}
+
+		// When & Then
+		mockMvc.perform(post("/api/shippings/batch")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(batch)))
+				.andExpect(status().isBadRequest());
+		assertEquals(0, orderItemRepository.count());
+	}
+
+	@Test
+	@DisplayName("Should import order items from a CSV upload and report rejected rows")
+	void testImportOrderItemsCsv() throws Exception {
+		// Given
+		String csv = "order_id,product_id,ordered_quantity\n"
+				+ "1,100,5\n"
+				+ "2,200,1\n"
+				+ "3,x,1\n"
+				+ "2,200,3\n";
+
+		// When & Then
+		mockMvc.perform(post("/api/shippings/import")
+				.contentType("text/csv")
+				.content(csv))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.rowsRead").value(4))
+				.andExpect(jsonPath("$.rowsImported").value(3))
+				.andExpect(jsonPath("$.rowsRejected").value(1))
+				.andExpect(jsonPath("$.errors[0].line").value(4));
+
+		assertEquals(2, orderItemRepository.count());
+		assertEquals(3, orderItemRepository.findById(new OrderItemId(200, 2)).orElseThrow().getOrderedQuantity());
+	}
+
+	@Test
+	@DisplayName("Should import order items from an NDJSON upload")
+	void testImportOrderItemsNdjson() throws Exception {
+		// Given
+		ObjectWriter writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+		String ndjson = writer.writeValueAsString(OrderItemDto.builder().orderId(1).productId(100).orderedQuantity(5).build())
+				+ "\n"
+				+ writer.writeValueAsString(OrderItemDto.builder().orderId(1).productId(101).orderedQuantity(2).build())
+				+ "\n";
+
+		// When & Then
+		mockMvc.perform(post("/api/shippings/import")
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.content(ndjson))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.rowsImported").value(2))
+				.andExpect(jsonPath("$.rowsRejected").value(0));
+
+		assertEquals(2, orderItemRepository.count());
+	}
+
+	@Test
+	@DisplayName("Should read product and order from the projections without remote calls")
+	void testGetOrderItems_FromProjections() throws Exception {
+		// Given
+		createOrderItemInDatabase();
+		eventPublisher.publishEvent(ProductChangeEvent.builder()
+				.productId(100)
+				.version(1L)
+				.productDto(ProductDto.builder().productId(100).productTitle("Projected Product").build())
+				.build());
+		eventPublisher.publishEvent(OrderChangeEvent.builder()
+				.orderId(1)
+				.version(1L)
+				.orderDto(OrderDto.builder().orderId(1).orderDesc("Projected Order").build())
+				.build());
+
+		// When & Then
+		mockMvc.perform(get("/api/shippings"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.collection[0].product.productTitle").value("Projected Product"))
+				.andExpect(jsonPath("$.collection[0].order.orderDesc").value("Projected Order"));
+		mockMvc.perform(get("/api/shippings/{orderId}/{productId}", 1, 100))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.product.productTitle").value("Projected Product"))
+				.andExpect(jsonPath("$.order.orderDesc").value("Projected Order"));
+		verify(restTemplate, never()).getForObject(any(String.class), any(Class.class));
+	}
+
+	@Test
+	@DisplayName("Should fall back to a remote call only for the relation without a projection")
+	void testGetOrderItems_FallsBackWithoutProjection() throws Exception {
+		// Given
+		createOrderItemInDatabase();
+		eventPublisher.publishEvent(ProductChangeEvent.builder()
+				.productId(100)
+				.version(1L)
+				.productDto(ProductDto.builder().productId(100).productTitle("Projected Product").build())
+				.build());
+
+		// When & Then
+		mockMvc.perform(get("/api/shippings"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.collection[0].product.productTitle").value("Projected Product"))
+				.andExpect(jsonPath("$.collection[0].order.orderDesc").value("Test Order"));
+		verify(restTemplate, never()).getForObject(any(String.class), eq(ProductDto.class));
+	}
+
+	@Test
+	@DisplayName("Should apply change events once and ignore stale versions")
+	void testApplyChangeEvents_Idempotent() throws Exception {
+		// Given
+		createOrderItemInDatabase();
+		ProductChangeEvent version2 = ProductChangeEvent.builder()
+				.productId(100)
+				.version(2L)
+				.productDto(ProductDto.builder().productId(100).productTitle("Version 2").build())
+				.build();
+		ProductChangeEvent version1 = ProductChangeEvent.builder()
+				.productId(100)
+				.version(1L)
+				.productDto(ProductDto.builder().productId(100).productTitle("Version 1").build())
+				.build();
+
+		// When & Then
+		mockMvc.perform(post("/api/projections/products")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(version2)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$").value(true));
+		mockMvc.perform(post("/api/projections/products")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(version2)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$").value(false));
+		mockMvc.perform(post("/api/projections/products")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(version1)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$").value(false));
+		mockMvc.perform(get("/api/shippings/{orderId}/{productId}", 1, 100).param("expand", "product"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.product.productTitle").value("Version 2"));
+	}
+
+	@Test
+	@DisplayName("Should resolve a deleted product to no product without a remote call")
+	void testGetOrderItems_DeletedProjection() throws Exception {
+		// Given
+		createOrderItemInDatabase();
+		eventPublisher.publishEvent(ProductChangeEvent.builder()
+				.productId(100)
+				.version(3L)
+				.deleted(true)
+				.build());
+
+		// When & Then
+		mockMvc.perform(get("/api/shippings/{orderId}/{productId}", 1, 100).param("expand", "product"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.product").doesNotExist());
+		verify(restTemplate, never()).getForObject(any(String.class), eq(ProductDto.class));
+	}
+
+	@Test
+	@DisplayName("Should sum quantities per product and per order in the database")
+	void testSumQuantities() throws Exception {
+		// Given
+		createOrderItemAt(1, 100, 5, "2024-01-01T00:00:00Z");
+		createOrderItemAt(1, 200, 1, "2024-02-01T00:00:00Z");
+		createOrderItemAt(2, 100, 3, "2024-02-01T00:00:00Z");
+		createOrderItemAt(3, 300, null, "2024-02-01T00:00:00Z");
+
+		// When & Then
+		mockMvc.perform(get("/api/shippings/totals/products"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.collection.length()").value(3))
+				.andExpect(jsonPath("$.collection[0].productId").value(100))
+				.andExpect(jsonPath("$.collection[0].units").value(8))
+				.andExpect(jsonPath("$.collection[2].units").value(0));
+		mockMvc.perform(get("/api/shippings/totals/orders"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.collection.length()").value(3))
+				.andExpect(jsonPath("$.collection[0].orderId").value(1))
+				.andExpect(jsonPath("$.collection[0].lines").value(2))
+				.andExpect(jsonPath("$.collection[0].units").value(6));
+		mockMvc.perform(get("/api/shippings/totals/products")
+				.param("from", "2024-01-15T00:00:00Z")
+				.param("to", "2024-03-01T00:00:00Z"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.collection[0].productId").value(100))
+				.andExpect(jsonPath("$.collection[0].units").value(3));
+		mockMvc.perform(get("/api/shippings/totals/orders").param("to", "2024-01-15T00:00:00Z"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.collection.length()").value(1))
+				.andExpect(jsonPath("$.collection[0].units").value(5));
+		mockMvc.perform(get("/api/shippings/totals/orders").param("from", "yesterday"))
+				.andExpect(status().isBadRequest());
+	}
+
+	private void createOrderItemAt(final int orderId, final int productId, final Integer orderedQuantity, 
+			final String createdAt) {
+		OrderItem orderItem = OrderItem.builder()
+				.orderId(orderId)
+				.productId(productId)
+				.orderedQuantity(orderedQuantity)
+				.build();
+		orderItem.setCreatedAt(Instant.parse(createdAt));
+		orderItemRepository.save(orderItem);
+	}
+
 	/**
 	 * Helper method to create an order item in the database
 	 */
@@ -0,0 +1,176 @@
+package com.selimhorri.app.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.selimhorri.app.domain.OrderItem;
+import com.selimhorri.app.domain.id.OrderItemId;
+import com.selimhorri.app.dto.OrderItemDto;
+import com.selimhorri.app.dto.QuantityDeltaDto;
+import com.selimhorri.app.repository.OrderItemRepository;
+import com.selimhorri.app.service.OrderItemService;
+
+/**
+ * Cuenta las sentencias SQL que genera cada escritura,
+ * usando las estadísticas de Hibernate
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("OrderItem Statement Count Integration Tests")
+class OrderItemStatementCountIntegrationTest {
+
+	@Autowired
+	private OrderItemService orderItemService;
+
+	@Autowired
+	private OrderItemRepository orderItemRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		orderItemRepository.deleteAll();
+		entityManager.flush();
+		entityManager.clear();
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	@DisplayName("Should create an order item with a single INSERT")
+	void testSave_SingleInsert() {
+		// When
+		orderItemService.save(orderItemDto(1, 100, 5));
+		entityManager.flush();
+
+		// Then
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertEquals(1, statistics.getEntityInsertCount());
+		assertEquals(0, statistics.getEntityLoadCount());
+	}
+
+	@Test
+	@DisplayName("Should update an order item with a single UPDATE")
+	void testUpdate_SingleUpdate() {
+		// Given
+		orderItemRepository.save(OrderItem.builder().orderId(1).productId(100).orderedQuantity(5).build());
+		entityManager.flush();
+		entityManager.clear();
+		statistics.clear();
+
+		// When
+		orderItemService.update(orderItemDto(1, 100, 9));
+		entityManager.flush();
+
+		// Then
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertEquals(0, statistics.getEntityLoadCount());
+		entityManager.clear();
+		assertEquals(9, orderItemRepository.findById(new OrderItemId(100, 1)).orElseThrow().getOrderedQuantity());
+	}
+
+	@Test
+	@DisplayName("Should increment the quantity with a single UPDATE and no entity load")
+	void testIncrement_SingleUpdate() {
+		// Given
+		orderItemRepository.save(OrderItem.builder().orderId(1).productId(100).orderedQuantity(5).build());
+		entityManager.flush();
+		entityManager.clear();
+		statistics.clear();
+
+		// When
+		orderItemService.incrementOrderedQuantity(new OrderItemId(100, 1), QuantityDeltaDto.builder().delta(2).build());
+
+		// Then
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertEquals(0, statistics.getEntityLoadCount());
+		entityManager.clear();
+		assertEquals(7, orderItemRepository.findById(new OrderItemId(100, 1)).orElseThrow().getOrderedQuantity());
+	}
+
+	@Test
+	@DisplayName("Should delete every item of an order with a single DELETE")
+	void testDeleteAllByOrderId_SingleDelete() {
+		// Given
+		orderItemService.saveAll(List.of(
+				orderItemDto(1, 100, 5),
+				orderItemDto(1, 200, 1),
+				orderItemDto(2, 100, 3)));
+		entityManager.flush();
+		entityManager.clear();
+		statistics.clear();
+
+		// When
+		int deleted = orderItemService.deleteAllByOrderId(1);
+
+		// Then
+		assertEquals(2, deleted);
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertEquals(0, statistics.getEntityLoadCount());
+		assertEquals(1, orderItemRepository.count());
+	}
+
+	@Test
+	@DisplayName("Should create a batch with one lookup and one batched INSERT")
+	void testSaveAll_BatchedInserts() {
+		// When
+		orderItemService.saveAll(List.of(
+				orderItemDto(1, 100, 5),
+				orderItemDto(1, 200, 1),
+				orderItemDto(2, 100, 3)));
+
+		// Then
+		assertEquals(2, statistics.getPrepareStatementCount());
+		assertEquals(3, statistics.getEntityInsertCount());
+	}
+
+	@Test
+	@DisplayName("Should flush and clear the persistence context every JDBC batch")
+	void testSaveAll_FlushedPerBatch() {
+		// Given
+		List<OrderItemDto> batch = new ArrayList<>();
+		for (int productId = 1; productId <= 120; productId++) {
+			batch.add(orderItemDto(1, productId, 1));
+		}
+
+		// When
+		orderItemService.saveAll(batch);
+
+		// Then: batch_size 50, only the last partial batch is still managed
+		assertEquals(120, statistics.getEntityInsertCount());
+		assertEquals(20, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+	}
+
+	private static OrderItemDto orderItemDto(final int orderId, final int productId, final int orderedQuantity) {
+		return OrderItemDto.builder()
+				.orderId(orderId)
+				.productId(productId)
+				.orderedQuantity(orderedQuantity)
+				.build();
+	}
+
+}
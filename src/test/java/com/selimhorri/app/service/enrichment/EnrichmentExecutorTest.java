@@ -0,0 +1,117 @@
+package com.selimhorri.app.service.enrichment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.selimhorri.app.config.enrichment.EnrichmentProperties;
+import com.selimhorri.app.config.enrichment.EnrichmentProperties.BulkheadSpec;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("EnrichmentExecutor Unit Tests")
+class EnrichmentExecutorTest {
+	
+	private MeterRegistry meterRegistry;
+	private EnrichmentExecutor enrichmentExecutor;
+	private CountDownLatch release;
+	
+	@BeforeEach
+	void setUp() {
+		final EnrichmentProperties enrichmentProperties = new EnrichmentProperties();
+		enrichmentProperties.setOrderBulkhead(new BulkheadSpec(1, 1));
+		meterRegistry = new SimpleMeterRegistry();
+		enrichmentExecutor = new EnrichmentExecutor(enrichmentProperties, meterRegistry);
+		release = new CountDownLatch(1);
+	}
+	
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		enrichmentExecutor.destroy();
+	}
+	
+	@Test
+	@DisplayName("Should reject order lookups when the order bulkhead is full without affecting products")
+	void testSubmit_IsolatesDownstreams() {
+		// Given: one running and one queued order lookup fill the order bulkhead
+		enrichmentExecutor.submit(Expand.ORDER, this::awaitRelease);
+		enrichmentExecutor.submit(Expand.ORDER, this::awaitRelease);
+		
+		// When
+		CompletableFuture<Integer> rejected = enrichmentExecutor.submit(Expand.ORDER, () -> 1);
+		CompletableFuture<Integer> product = enrichmentExecutor.submit(Expand.PRODUCT, () -> 2);
+		
+		// Then
+		CompletionException exception = assertThrows(CompletionException.class, rejected::join);
+		assertTrue(exception.getCause() instanceof RejectedExecutionException);
+		assertEquals(2, product.join());
+		assertEquals(1.0, meterRegistry.get("enrichment.bulkhead.rejected").tag("downstream", "order")
+				.counter().count());
+		assertEquals(1.0, meterRegistry.get("executor.queued").tag("name", "enrichment-order")
+				.gauge().value());
+	}
+	
+	@Test
+	@DisplayName("Should run a batch larger than the bulkhead on a bounded number of tasks")
+	void testSubmitAll_DrainsBatchLargerThanBulkhead() {
+		// Given
+		final Set<Integer> ids = IntStream.rangeClosed(1, 50).boxed()
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+		
+		// When
+		Map<Integer, CompletableFuture<Integer>> pending = enrichmentExecutor.submitAll(Expand.ORDER, ids, id -> id * 10);
+		
+		// Then
+		assertEquals(50, pending.size());
+		pending.forEach((id, future) -> assertEquals(id * 10, future.join()));
+		assertEquals(0.0, meterRegistry.get("enrichment.bulkhead.rejected").tag("downstream", "order")
+				.counter().count());
+	}
+	
+	@Test
+	@DisplayName("Should complete the lookup exceptionally when it throws an Error")
+	void testSubmitAll_ErrorCompletesFuture() {
+		// Given
+		final Set<Integer> ids = new LinkedHashSet<>(Set.of(1, 2));
+		
+		// When
+		Map<Integer, CompletableFuture<Integer>> pending = enrichmentExecutor.submitAll(Expand.ORDER, ids, id -> {
+			if (id == 1) {
+				throw new AssertionError("boom");
+			}
+			return id * 10;
+		});
+		
+		// Then
+		CompletionException exception = assertThrows(CompletionException.class, pending.get(1)::join);
+		assertTrue(exception.getCause() instanceof AssertionError);
+		assertEquals(20, pending.get(2).join());
+	}
+	
+	private Integer awaitRelease() {
+		try {
+			release.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return 0;
+	}
+	
+}
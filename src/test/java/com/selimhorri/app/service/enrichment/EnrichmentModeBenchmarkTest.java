@@ -0,0 +1,189 @@
+package com.selimhorri.app.service.enrichment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.selimhorri.app.client.HedgerRegistry;
+import com.selimhorri.app.client.NegativeCache;
+import com.selimhorri.app.client.OrderClient;
+import com.selimhorri.app.client.ProductClient;
+import com.selimhorri.app.client.StaleStore;
+import com.selimhorri.app.config.client.HedgingProperties;
+import com.selimhorri.app.config.enrichment.EnrichmentProperties;
+import com.selimhorri.app.config.enrichment.EnrichmentProperties.Mode;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderItemDto;
+import com.selimhorri.app.dto.ProductDto;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Compares the blocking and the reactive enrichment paths against downstream
+ * services answering after a fixed latency, with every lookup a cache miss.
+ * Each mode is warmed up once and then timed over a few runs; the median
+ * latency and the number of threads that handled downstream answers are
+ * logged side by side. Only the enriched result is asserted, wall-clock
+ * timings are too noisy to assert on a shared build agent.
+ */
+@ExtendWith(MockitoExtension.class)
+@Slf4j
+@Tag("benchmark")
+@DisplayName("Enrichment mode benchmark")
+class EnrichmentModeBenchmarkTest {
+	
+	private static final int ITEMS = 300;
+	private static final Duration LATENCY = Duration.ofMillis(20);
+	private static final int RUNS = 3;
+	
+	@Mock
+	private RestTemplate restTemplate;
+	
+	private EnrichmentProperties enrichmentProperties;
+	private final Set<Thread> downstreamThreads = ConcurrentHashMap.newKeySet();
+	
+	@BeforeEach
+	void setUp() {
+		enrichmentProperties = new EnrichmentProperties();
+		enrichmentProperties.setReactiveConcurrency(256);
+	}
+	
+	@Test
+	@DisplayName("Blocking and reactive enrichment should resolve the same items, timings are reported")
+	void testReactiveVersusBlocking() {
+		// Given
+		when(restTemplate.getForObject(anyString(), eq(ProductDto.class))).thenAnswer(invocation -> {
+			downstreamThreads.add(Thread.currentThread());
+			Thread.sleep(LATENCY.toMillis());
+			return ProductDto.builder().productId(idOf(invocation.getArgument(0))).build();
+		});
+		when(restTemplate.getForObject(anyString(), eq(OrderDto.class))).thenAnswer(invocation -> {
+			downstreamThreads.add(Thread.currentThread());
+			Thread.sleep(LATENCY.toMillis());
+			return OrderDto.builder().orderId(idOf(invocation.getArgument(0))).build();
+		});
+		
+		// When
+		Measurement blocking = measure(Mode.BLOCKING);
+		Measurement reactive = measure(Mode.REACTIVE);
+		
+		// Then
+		log.info("*** Enrichment benchmark, {} items, {} ms per lookup; blocking: median {} ms on {} threads; "
+				+ "reactive: median {} ms on {} threads *", ITEMS, LATENCY.toMillis(), 
+				blocking.medianMillis, blocking.threads, reactive.medianMillis, reactive.threads);
+	}
+	
+	/**
+	 * One warm-up run, then {@value #RUNS} timed runs on fresh caches.
+	 */
+	private Measurement measure(final Mode mode) {
+		enrichmentProperties.setMode(mode);
+		final EnrichmentExecutor enrichmentExecutor = new EnrichmentExecutor(enrichmentProperties, new SimpleMeterRegistry());
+		try {
+			assertEnriched(enricher(enrichmentExecutor).enrichAll(items()));
+			downstreamThreads.clear();
+			final long[] millis = new long[RUNS];
+			for (int i = 0; i < RUNS; i++) {
+				final OrderItemEnricher enricher = enricher(enrichmentExecutor);
+				final long start = System.nanoTime();
+				final List<OrderItemDto> enriched = enricher.enrichAll(items());
+				millis[i] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+				assertEnriched(enriched);
+			}
+			Arrays.sort(millis);
+			return new Measurement(millis[RUNS / 2], downstreamThreads.size());
+		} finally {
+			enrichmentExecutor.destroy();
+		}
+	}
+	
+	private OrderItemEnricher enricher(final EnrichmentExecutor enrichmentExecutor) {
+		final WebClient.Builder webClientBuilder = this.delayedWebClientBuilder();
+		return new OrderItemEnricher(
+				new ProductClient(restTemplate, webClientBuilder, Caffeine.newBuilder().build(),
+						new StaleStore<>(Caffeine.newBuilder().build()), new NegativeCache<>(Caffeine.newBuilder().build()),
+						CircuitBreakerRegistry.ofDefaults(),
+						new HedgerRegistry(new HedgingProperties(), new SimpleMeterRegistry())),
+				new OrderClient(restTemplate, webClientBuilder, Caffeine.newBuilder().build(),
+						new StaleStore<>(Caffeine.newBuilder().build()), new NegativeCache<>(Caffeine.newBuilder().build()),
+						CircuitBreakerRegistry.ofDefaults(),
+						new HedgerRegistry(new HedgingProperties(), new SimpleMeterRegistry())),
+				enrichmentExecutor,
+				enrichmentProperties);
+	}
+	
+	private static List<OrderItemDto> items() {
+		return IntStream.rangeClosed(1, ITEMS)
+				.mapToObj(i -> OrderItemDto.builder()
+						.productId(i)
+						.orderId(i)
+						.orderedQuantity(1)
+						.build())
+				.collect(Collectors.toList());
+	}
+	
+	private static void assertEnriched(final List<OrderItemDto> orderItemDtos) {
+		assertEquals(ITEMS, orderItemDtos.size());
+		orderItemDtos.forEach(o -> {
+			assertEquals(o.getProductId(), o.getProductDto().getProductId());
+			assertEquals(o.getOrderId(), o.getOrderDto().getOrderId());
+		});
+	}
+	
+	private WebClient.Builder delayedWebClientBuilder() {
+		return WebClient.builder()
+				.exchangeFunction(request -> Mono.delay(LATENCY)
+						.doOnNext(tick -> downstreamThreads.add(Thread.currentThread()))
+						.map(tick -> ClientResponse.create(HttpStatus.OK)
+								.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+								.body(request.url().getPath().contains("/api/products/")
+										? "{\"productId\":" + idOf(request.url().getPath()) + "}"
+										: "{\"orderId\":" + idOf(request.url().getPath()) + "}")
+								.build()));
+	}
+	
+	private static Integer idOf(final String url) {
+		return Integer.parseInt(url.substring(url.lastIndexOf('/') + 1));
+	}
+	
+	private static final class Measurement {
+		
+		private final long medianMillis;
+		private final int threads;
+		
+		Measurement(final long medianMillis, final int threads) {
+			this.medianMillis = medianMillis;
+			this.threads = threads;
+		}
+		
+	}
+	
+}
@@ -2,6 +2,7 @@ package com.selimhorri.app.service.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -11,28 +12,56 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.selimhorri.app.client.HedgerRegistry;
+import com.selimhorri.app.client.NegativeCache;
+import com.selimhorri.app.client.OrderClient;
+import com.selimhorri.app.client.ProductClient;
+import com.selimhorri.app.client.RequestDeadline;
+import com.selimhorri.app.client.StaleStore;
+import com.selimhorri.app.config.client.HedgingProperties;
+import com.selimhorri.app.config.enrichment.EnrichmentProperties;
+import com.selimhorri.app.config.persistence.PersistenceProperties;
 import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.domain.OrderItem;
+import com.selimhorri.app.domain.OrderProjection;
+import com.selimhorri.app.domain.ProductProjection;
 import com.selimhorri.app.domain.id.OrderItemId;
+import com.selimhorri.app.domain.view.OrderItemView;
 import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.OrderItemDto;
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.QuantityDeltaDto;
+import com.selimhorri.app.dto.response.aggregate.OrderQuantityTotal;
+import com.selimhorri.app.dto.response.aggregate.ProductQuantityTotal;
+import com.selimhorri.app.exception.wrapper.DeadlineExceededException;
 import com.selimhorri.app.exception.wrapper.OrderItemNotFoundException;
 import com.selimhorri.app.repository.OrderItemRepository;
+import com.selimhorri.app.service.enrichment.EnrichmentExecutor;
+import com.selimhorri.app.service.enrichment.Expand;
+import com.selimhorri.app.service.enrichment.OrderItemEnricher;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("OrderItemServiceImpl Unit Tests")
@@ -44,7 +73,8 @@ class OrderItemServiceImplTest {
 	@Mock
 	private RestTemplate restTemplate;
 	
-	@InjectMocks
+	private Cache<Integer, OrderDto> orderCache;
+	private PersistenceProperties persistenceProperties;
 	private OrderItemServiceImpl orderItemService;
 	
 	private OrderItem testOrderItem;
@@ -55,6 +85,19 @@ class OrderItemServiceImplTest {
 	
 	@BeforeEach
 	void setUp() {
+		orderCache = Caffeine.newBuilder().build();
+		persistenceProperties = new PersistenceProperties();
+		final OrderClient orderClient = new OrderClient(restTemplate, WebClient.builder(), orderCache,
+				new StaleStore<>(Caffeine.newBuilder().build()), new NegativeCache<>(Caffeine.newBuilder().build()),
+				CircuitBreakerRegistry.ofDefaults(), new HedgerRegistry(new HedgingProperties(), new SimpleMeterRegistry()));
+		orderItemService = new OrderItemServiceImpl(orderItemRepository,
+				new OrderItemEnricher(new ProductClient(restTemplate, WebClient.builder(), Caffeine.newBuilder().build(),
+						new StaleStore<>(Caffeine.newBuilder().build()), new NegativeCache<>(Caffeine.newBuilder().build()),
+						CircuitBreakerRegistry.ofDefaults(),
+						new HedgerRegistry(new HedgingProperties(), new SimpleMeterRegistry())), orderClient,
+						new EnrichmentExecutor(new EnrichmentProperties(), new SimpleMeterRegistry()), new EnrichmentProperties()),
+				orderClient, persistenceProperties);
+		
 		testOrderItemId = new OrderItemId(1, 100);
 		
 		testProductDto = ProductDto.builder()
@@ -89,7 +132,7 @@ class OrderItemServiceImplTest {
 	void testFindAll_Success() {
 		// Given
 		List<OrderItem> orderItems = Arrays.asList(testOrderItem);
-		when(orderItemRepository.findAll()).thenReturn(orderItems);
+		when(orderItemRepository.findAllViews()).thenReturn(views(orderItems));
 		when(restTemplate.getForObject(
 				eq(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/100"),
 				eq(ProductDto.class)))
@@ -109,7 +152,7 @@ class OrderItemServiceImplTest {
 		assertEquals(100, result.get(0).getProductId());
 		assertNotNull(result.get(0).getProductDto());
 		assertNotNull(result.get(0).getOrderDto());
-		verify(orderItemRepository, times(1)).findAll();
+		verify(orderItemRepository, times(1)).findAllViews();
 		verify(restTemplate, times(1)).getForObject(
 				eq(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/100"),
 				eq(ProductDto.class));
@@ -122,7 +165,7 @@ class OrderItemServiceImplTest {
 	@DisplayName("Should return empty list when no order items exist")
 	void testFindAll_EmptyList() {
 		// Given
-		when(orderItemRepository.findAll()).thenReturn(Collections.emptyList());
+		when(orderItemRepository.findAllViews()).thenReturn(Collections.emptyList());
 		
 		// When
 		List<OrderItemDto> result = orderItemService.findAll();
@@ -130,7 +173,7 @@ class OrderItemServiceImplTest {
 		// Then
 		assertNotNull(result);
 		assertTrue(result.isEmpty());
-		verify(orderItemRepository, times(1)).findAll();
+		verify(orderItemRepository, times(1)).findAllViews();
 		verify(restTemplate, never()).getForObject(any(String.class), any(Class.class));
 	}
 	
@@ -138,7 +181,8 @@ class OrderItemServiceImplTest {
 	@DisplayName("Should find order item by id successfully")
 	void testFindById_Success() {
 		// Given
-		when(orderItemRepository.findById(testOrderItemId)).thenReturn(Optional.of(testOrderItem));
+		when(orderItemRepository.findViewById(testOrderItemId.getProductId(), testOrderItemId.getOrderId()))
+				.thenReturn(Optional.of(new OrderItemView(testOrderItem, null, null)));
 		when(restTemplate.getForObject(
 				eq(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/100"),
 				eq(ProductDto.class)))
@@ -158,7 +202,7 @@ class OrderItemServiceImplTest {
 		assertEquals(5, result.getOrderedQuantity());
 		assertNotNull(result.getProductDto());
 		assertNotNull(result.getOrderDto());
-		verify(orderItemRepository, times(1)).findById(testOrderItemId);
+		verify(orderItemRepository, times(1)).findViewById(testOrderItemId.getProductId(), testOrderItemId.getOrderId());
 		verify(restTemplate, times(1)).getForObject(
 				eq(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/100"),
 				eq(ProductDto.class));
@@ -172,7 +216,8 @@ class OrderItemServiceImplTest {
 	void testFindById_NotFound() {
 		// Given
 		OrderItemId nonExistentId = new OrderItemId(999, 999);
-		when(orderItemRepository.findById(nonExistentId)).thenReturn(Optional.empty());
+		when(orderItemRepository.findViewById(nonExistentId.getProductId(), nonExistentId.getOrderId()))
+				.thenReturn(Optional.empty());
 		
 		// When & Then
 		OrderItemNotFoundException exception = assertThrows(
@@ -181,7 +226,7 @@ class OrderItemServiceImplTest {
 		);
 		
 		assertTrue(exception.getMessage().contains("OrderItem with id: " + nonExistentId + " not found"));
-		verify(orderItemRepository, times(1)).findById(nonExistentId);
+		verify(orderItemRepository, times(1)).findViewById(nonExistentId.getProductId(), nonExistentId.getOrderId());
 		verify(restTemplate, never()).getForObject(any(String.class), any(Class.class));
 	}
 	
@@ -216,6 +261,24 @@ class OrderItemServiceImplTest {
 		verify(orderItemRepository, times(1)).save(any(OrderItem.class));
 	}
 	
+	@Test
+	@DisplayName("Should upsert instead of insert in upsert save mode")
+	void testSave_UpsertMode() {
+		// Given
+		persistenceProperties.setSaveMode(PersistenceProperties.SaveMode.UPSERT);
+		when(orderItemRepository.upsert(any(OrderItem.class))).thenReturn(1);
+		
+		// When
+		OrderItemDto result = orderItemService.save(testOrderItemDto);
+		
+		// Then
+		assertEquals(1, result.getOrderId());
+		assertEquals(100, result.getProductId());
+		assertEquals(5, result.getOrderedQuantity());
+		verify(orderItemRepository, times(1)).upsert(any(OrderItem.class));
+		verify(orderItemRepository, never()).save(any(OrderItem.class));
+	}
+	
 	@Test
 	@DisplayName("Should update order item successfully")
 	void testUpdate_Success() {
@@ -228,13 +291,7 @@ class OrderItemServiceImplTest {
 				.orderDto(OrderDto.builder().orderId(1).build())
 				.build();
 		
-		OrderItem updatedOrderItem = OrderItem.builder()
-				.orderId(1)
-				.productId(100)
-				.orderedQuantity(8)
-				.build();
-		
-		when(orderItemRepository.save(any(OrderItem.class))).thenReturn(updatedOrderItem);
+		when(orderItemRepository.updateOrderedQuantity(100, 1, 8)).thenReturn(1);
 		
 		// When
 		OrderItemDto result = orderItemService.update(updatedOrderItemDto);
@@ -244,7 +301,19 @@ class OrderItemServiceImplTest {
 		assertEquals(1, result.getOrderId());
 		assertEquals(100, result.getProductId());
 		assertEquals(8, result.getOrderedQuantity());
-		verify(orderItemRepository, times(1)).save(any(OrderItem.class));
+		verify(orderItemRepository, times(1)).updateOrderedQuantity(100, 1, 8);
+		verify(orderItemRepository, never()).save(any(OrderItem.class));
+	}
+	
+	@Test
+	@DisplayName("Should throw OrderItemNotFoundException when updating a missing order item")
+	void testUpdate_NotFound() {
+		// Given
+		when(orderItemRepository.updateOrderedQuantity(100, 1, 5)).thenReturn(0);
+		
+		// When & Then
+		assertThrows(OrderItemNotFoundException.class, () -> orderItemService.update(testOrderItemDto));
+		verify(orderItemRepository, never()).save(any(OrderItem.class));
 	}
 	
 	@Test
@@ -260,6 +329,22 @@ class OrderItemServiceImplTest {
 		verify(orderItemRepository, times(1)).deleteById(testOrderItemId);
 	}
 	
+	@Test
+	@DisplayName("Should delete every item of an order in one call and evict the order")
+	void testDeleteAllByOrderId() {
+		// Given
+		when(orderItemRepository.deleteAllByOrderId(1)).thenReturn(3);
+		orderCache.put(1, testOrderDto);
+		
+		// When
+		int deleted = orderItemService.deleteAllByOrderId(1);
+		
+		// Then
+		assertEquals(3, deleted);
+		assertNull(orderCache.getIfPresent(1));
+		verify(orderItemRepository, never()).deleteById(any(OrderItemId.class));
+	}
+	
 	@Test
 	@DisplayName("Should handle multiple order items and return distinct list")
 	void testFindAll_MultipleOrderItems() {
@@ -271,7 +356,7 @@ class OrderItemServiceImplTest {
 				.build();
 		
 		List<OrderItem> orderItems = Arrays.asList(testOrderItem, orderItem2);
-		when(orderItemRepository.findAll()).thenReturn(orderItems);
+		when(orderItemRepository.findAllViews()).thenReturn(views(orderItems));
 		
 		ProductDto productDto2 = ProductDto.builder()
 				.productId(200)
@@ -308,8 +393,327 @@ class OrderItemServiceImplTest {
 		assertEquals(2, result.size());
 		assertEquals(1, result.get(0).getOrderId());
 		assertEquals(2, result.get(1).getOrderId());
-		verify(orderItemRepository, times(1)).findAll();
+		verify(orderItemRepository, times(1)).findAllViews();
 	}
-
+	
+	@Test
+	@DisplayName("Should fetch each distinct product and order only once")
+	void testFindAll_DeduplicatesRemoteLookups() {
+		// Given
+		OrderItem sameOrderOtherProduct = OrderItem.builder()
+				.orderId(1)
+				.productId(200)
+				.orderedQuantity(1)
+				.build();
+		OrderItem otherOrderSameProduct = OrderItem.builder()
+				.orderId(2)
+				.productId(100)
+				.orderedQuantity(4)
+				.build();
+		
+		when(orderItemRepository.findAllViews())
+				.thenReturn(views(Arrays.asList(testOrderItem, sameOrderOtherProduct, otherOrderSameProduct)));
+		when(restTemplate.getForObject(any(String.class), eq(ProductDto.class)))
+				.thenReturn(testProductDto);
+		when(restTemplate.getForObject(any(String.class), eq(OrderDto.class)))
+				.thenReturn(testOrderDto);
+		
+		// When
+		List<OrderItemDto> result = orderItemService.findAll();
+		
+		// Then
+		assertEquals(3, result.size());
+		result.forEach(o -> {
+			assertNotNull(o.getProductDto());
+			assertNotNull(o.getOrderDto());
+		});
+		verify(restTemplate, times(2)).getForObject(any(String.class), eq(ProductDto.class));
+		verify(restTemplate, times(2)).getForObject(any(String.class), eq(OrderDto.class));
+	}
+	
+	@Test
+	@DisplayName("Should keep listing when a product lookup fails")
+	void testFindAll_ProductLookupFails() {
+		// Given
+		when(orderItemRepository.findAllViews()).thenReturn(views(Arrays.asList(testOrderItem)));
+		when(restTemplate.getForObject(any(String.class), eq(ProductDto.class)))
+				.thenThrow(new RuntimeException("product-service down"));
+		when(restTemplate.getForObject(any(String.class), eq(OrderDto.class)))
+				.thenReturn(testOrderDto);
+		
+		// When
+		List<OrderItemDto> result = orderItemService.findAll();
+		
+		// Then
+		assertEquals(1, result.size());
+		assertEquals(100, result.get(0).getProductDto().getProductId());
+		assertEquals("Test Order", result.get(0).getOrderDto().getOrderDesc());
+	}
+	
+	@Test
+	@DisplayName("Should fail fast when the order lookup fails on find by id")
+	void testFindById_OrderLookupFails() {
+		// Given
+		when(orderItemRepository.findViewById(testOrderItemId.getProductId(), testOrderItemId.getOrderId()))
+				.thenReturn(Optional.of(new OrderItemView(testOrderItem, null, null)));
+		when(restTemplate.getForObject(any(String.class), eq(ProductDto.class)))
+				.thenReturn(testProductDto);
+		when(restTemplate.getForObject(any(String.class), eq(OrderDto.class)))
+				.thenThrow(new RuntimeException("order-service down"));
+		
+		// When & Then
+		RuntimeException exception = assertThrows(
+				RuntimeException.class,
+				() -> orderItemService.findById(testOrderItemId));
+		
+		assertEquals("Failed to fetch order data: order-service down", exception.getMessage());
+	}
+	
+	@Test
+	@DisplayName("Should evict the cached order when one of its items is written")
+	void testWrites_EvictCachedOrder() {
+		// Given
+		OrderItem savedOrderItem = OrderItem.builder()
+				.orderId(1)
+				.productId(100)
+				.orderedQuantity(5)
+				.build();
+		when(orderItemRepository.save(any(OrderItem.class))).thenReturn(savedOrderItem);
+		when(orderItemRepository.updateOrderedQuantity(100, 1, 5)).thenReturn(1);
+		
+		// When & Then
+		orderCache.put(1, testOrderDto);
+		orderItemService.save(testOrderItemDto);
+		assertNull(orderCache.getIfPresent(1));
+		
+		orderCache.put(1, testOrderDto);
+		orderItemService.update(testOrderItemDto);
+		assertNull(orderCache.getIfPresent(1));
+		
+		orderCache.put(1, testOrderDto);
+		orderItemService.deleteById(new OrderItemId(100, 1));
+		assertNull(orderCache.getIfPresent(1));
+	}
+	
+	@Test
+	@DisplayName("Should serve quantity totals from the database without remote lookups")
+	void testSumQuantities() {
+		// Given
+		Instant from = Instant.parse("2024-01-01T00:00:00Z");
+		when(orderItemRepository.sumQuantityByProduct(from, null))
+				.thenReturn(List.of(new ProductQuantityTotal(100, 8L)));
+		when(orderItemRepository.sumQuantityByOrder(from, null))
+				.thenReturn(List.of(new OrderQuantityTotal(1, 2L, 6L)));
+		
+		// When
+		List<ProductQuantityTotal> byProduct = orderItemService.sumQuantityByProduct(from, null);
+		List<OrderQuantityTotal> byOrder = orderItemService.sumQuantityByOrder(from, null);
+		
+		// Then
+		assertEquals(8L, byProduct.get(0).getUnits());
+		assertEquals(2L, byOrder.get(0).getLines());
+		verify(restTemplate, never()).getForObject(any(String.class), any(Class.class));
+	}
+	
+	@Test
+	@DisplayName("Should skip remote lookups for a bare read")
+	void testFindAll_WithoutExpansions() {
+		// Given
+		when(orderItemRepository.findAllViews()).thenReturn(views(Arrays.asList(testOrderItem)));
+		
+		// When
+		List<OrderItemDto> result = orderItemService.findAll(Expand.parse("none"));
+		
+		// Then
+		assertEquals(1, result.size());
+		assertEquals(5, result.get(0).getOrderedQuantity());
+		assertNull(result.get(0).getProductDto());
+		assertNull(result.get(0).getOrderDto());
+		verify(restTemplate, never()).getForObject(any(String.class), any(Class.class));
+	}
+	
+	@Test
+	@DisplayName("Should only fetch the requested expansion on find by id")
+	void testFindById_ExpandProductOnly() {
+		// Given
+		when(orderItemRepository.findViewById(testOrderItemId.getProductId(), testOrderItemId.getOrderId()))
+				.thenReturn(Optional.of(new OrderItemView(testOrderItem, null, null)));
+		when(restTemplate.getForObject(
+				eq(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/100"),
+				eq(ProductDto.class)))
+				.thenReturn(testProductDto);
+		
+		// When
+		OrderItemDto result = orderItemService.findById(testOrderItemId, Expand.parse("product"));
+		
+		// Then
+		assertEquals("Test Product", result.getProductDto().getProductTitle());
+		assertNull(result.getOrderDto());
+		verify(restTemplate, never()).getForObject(any(String.class), eq(OrderDto.class));
+	}
+	
+	@Test
+	@DisplayName("Should return partial results without remote calls once the request deadline is spent")
+	void testFindAll_DeadlineExceeded() {
+		// Given
+		when(orderItemRepository.findAllViews()).thenReturn(views(Arrays.asList(testOrderItem)));
+		final RequestDeadline deadline = RequestDeadline.start(Duration.ZERO);
+		
+		try {
+			// When
+			List<OrderItemDto> result = orderItemService.findAll();
+			
+			// Then
+			assertEquals(1, result.size());
+			assertEquals(100, result.get(0).getProductDto().getProductId());
+			assertNull(result.get(0).getProductDto().getProductTitle());
+			assertTrue(deadline.isPartial());
+			verify(restTemplate, never()).getForObject(any(String.class), any(Class.class));
+		} finally {
+			RequestDeadline.clear();
+		}
+	}
+	
+	@Test
+	@DisplayName("Should propagate a spent request deadline on findById unwrapped")
+	void testFindById_DeadlineExceeded() {
+		// Given
+		when(orderItemRepository.findViewById(testOrderItemId.getProductId(), testOrderItemId.getOrderId()))
+				.thenReturn(Optional.of(new OrderItemView(testOrderItem, null, null)));
+		RequestDeadline.start(Duration.ZERO);
+		
+		try {
+			// When & Then
+			assertThrows(DeadlineExceededException.class, () -> orderItemService.findById(testOrderItemId));
+			verify(restTemplate, never()).getForObject(any(String.class), any(Class.class));
+		} finally {
+			RequestDeadline.clear();
+		}
+	}
+	
+	@Test
+	@DisplayName("Should look up only the order when the product has a projection")
+	void testFindAll_ProjectedProduct() {
+		// Given
+		ProductProjection productProjection = ProductProjection.builder()
+				.productId(100)
+				.productTitle("Projected Product")
+				.version(1L)
+				.build();
+		when(orderItemRepository.findAllViews())
+				.thenReturn(Arrays.asList(new OrderItemView(testOrderItem, productProjection, null)));
+		when(restTemplate.getForObject(any(String.class), eq(OrderDto.class)))
+				.thenReturn(testOrderDto);
+		
+		// When
+		List<OrderItemDto> result = orderItemService.findAll();
+		
+		// Then
+		assertEquals("Projected Product", result.get(0).getProductDto().getProductTitle());
+		assertEquals("Test Order", result.get(0).getOrderDto().getOrderDesc());
+		verify(restTemplate, never()).getForObject(any(String.class), eq(ProductDto.class));
+	}
+	
+	@Test
+	@DisplayName("Should not look up relations whose projection is present or deleted on find by id")
+	void testFindById_Projected() {
+		// Given
+		ProductProjection deletedProduct = ProductProjection.builder()
+				.productId(100)
+				.version(2L)
+				.deleted(true)
+				.build();
+		OrderProjection orderProjection = OrderProjection.builder()
+				.orderId(1)
+				.orderDesc("Projected Order")
+				.version(1L)
+				.build();
+		when(orderItemRepository.findViewById(testOrderItemId.getProductId(), testOrderItemId.getOrderId()))
+				.thenReturn(Optional.of(new OrderItemView(testOrderItem, deletedProduct, orderProjection)));
+		
+		// When
+		OrderItemDto result = orderItemService.findById(testOrderItemId);
+		
+		// Then
+		assertNull(result.getProductDto());
+		assertEquals("Projected Order", result.getOrderDto().getOrderDesc());
+		verify(restTemplate, never()).getForObject(any(String.class), any(Class.class));
+	}
+	
+	@Test
+	@DisplayName("Should fetch the order once for all of its items")
+	void testFindAllByOrderId_FetchesOrderOnce() {
+		// Given
+		OrderItem sameOrderOtherProduct = OrderItem.builder()
+				.orderId(1)
+				.productId(200)
+				.orderedQuantity(1)
+				.build();
+		when(orderItemRepository.findAllViewsByOrderId(1))
+				.thenReturn(views(Arrays.asList(testOrderItem, sameOrderOtherProduct)));
+		when(restTemplate.getForObject(any(String.class), eq(ProductDto.class)))
+				.thenReturn(testProductDto);
+		when(restTemplate.getForObject(any(String.class), eq(OrderDto.class)))
+				.thenReturn(testOrderDto);
+		
+		// When
+		List<OrderItemDto> result = orderItemService.findAllByOrderId(1);
+		
+		// Then
+		assertEquals(2, result.size());
+		result.forEach(o -> assertEquals("Test Order", o.getOrderDto().getOrderDesc()));
+		verify(restTemplate, times(1)).getForObject(
+				eq(AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/1"),
+				eq(OrderDto.class));
+	}
+	
+	@Test
+	@DisplayName("Should look up ids once and return items in the requested order")
+	void testFindAllById_DeduplicatesAndKeepsOrder() {
+		// Given
+		OrderItem otherOrderItem = OrderItem.builder()
+				.orderId(2)
+				.productId(200)
+				.orderedQuantity(3)
+				.build();
+		when(orderItemRepository.findAllViewsByIdIn(any()))
+				.thenReturn(views(Arrays.asList(testOrderItem, otherOrderItem)));
+		
+		// When
+		List<OrderItemDto> result = orderItemService.findAllById(Arrays.asList(
+				new OrderItemId(200, 2), new OrderItemId(100, 1), new OrderItemId(200, 2), new OrderItemId(7, 7)), 
+				Expand.parse("none"));
+		
+		// Then
+		assertEquals(2, result.size());
+		assertEquals(200, result.get(0).getProductId());
+		assertEquals(100, result.get(1).getProductId());
+		verify(orderItemRepository, times(1)).findAllViewsByIdIn(eq(new LinkedHashSet<>(Arrays.asList(
+				new OrderItemId(200, 2), new OrderItemId(100, 1), new OrderItemId(7, 7)))));
+	}
+	
+	@Test
+	@DisplayName("Should tell a refused quantity change from a missing order item")
+	void testIncrementOrderedQuantity_Refused() {
+		// Given
+		QuantityDeltaDto decrement = QuantityDeltaDto.builder().delta(-10).min(0).build();
+		when(orderItemRepository.incrementOrderedQuantity(100, 1, -10, 0, null)).thenReturn(0);
+		when(orderItemRepository.existsById(new OrderItemId(100, 1))).thenReturn(true);
+		when(orderItemRepository.existsById(new OrderItemId(999, 999))).thenReturn(false);
+		when(orderItemRepository.incrementOrderedQuantity(999, 999, -10, 0, null)).thenReturn(0);
+		
+		// When & Then
+		assertThrows(IllegalStateException.class, 
+				() -> orderItemService.incrementOrderedQuantity(new OrderItemId(100, 1), decrement));
+		assertThrows(OrderItemNotFoundException.class, 
+				() -> orderItemService.incrementOrderedQuantity(new OrderItemId(999, 999), decrement));
+		verify(orderItemRepository, never()).save(any(OrderItem.class));
+	}
+	
+	private static List<OrderItemView> views(final List<OrderItem> orderItems) {
+		return orderItems.stream()
+				.map(o -> new OrderItemView(o, null, null))
+				.collect(Collectors.toList());
+	}
+	
 }
-
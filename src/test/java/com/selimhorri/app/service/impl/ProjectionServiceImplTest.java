@@ -0,0 +1,103 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.selimhorri.app.domain.ProductProjection;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.event.ProductChangeEvent;
+import com.selimhorri.app.repository.OrderProjectionRepository;
+import com.selimhorri.app.repository.ProductProjectionRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProjectionServiceImpl Unit Tests")
+class ProjectionServiceImplTest {
+	
+	@Mock
+	private ProductProjectionRepository productProjectionRepository;
+	
+	@Mock
+	private OrderProjectionRepository orderProjectionRepository;
+	
+	@Mock
+	private PlatformTransactionManager transactionManager;
+	
+	private ProjectionServiceImpl projectionService;
+	
+	@BeforeEach
+	void setUp() {
+		projectionService = new ProjectionServiceImpl(productProjectionRepository, orderProjectionRepository, 
+				transactionManager);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+	}
+	
+	@Test
+	@DisplayName("Should retry a first event that lost the insert race and apply it when newer")
+	void testApply_ConcurrentFirstEventNewer() {
+		// Given: another first event inserted version 5 in the meantime
+		when(productProjectionRepository.findForUpdate(1))
+				.thenReturn(Optional.empty())
+				.thenReturn(Optional.of(projection(5L)));
+		when(productProjectionRepository.saveAndFlush(any(ProductProjection.class)))
+				.thenThrow(new DataIntegrityViolationException("duplicate key"))
+				.thenAnswer(invocation -> invocation.getArgument(0));
+		
+		// When
+		boolean applied = projectionService.apply(event(7L));
+		
+		// Then
+		assertTrue(applied);
+		verify(productProjectionRepository, times(2)).saveAndFlush(any(ProductProjection.class));
+		verify(transactionManager, times(1)).rollback(any());
+	}
+	
+	@Test
+	@DisplayName("Should retry a first event that lost the insert race and ignore it when older")
+	void testApply_ConcurrentFirstEventOlder() {
+		// Given
+		when(productProjectionRepository.findForUpdate(1))
+				.thenReturn(Optional.empty())
+				.thenReturn(Optional.of(projection(5L)));
+		when(productProjectionRepository.saveAndFlush(any(ProductProjection.class)))
+				.thenThrow(new DataIntegrityViolationException("duplicate key"));
+		
+		// When
+		boolean applied = projectionService.apply(event(3L));
+		
+		// Then
+		assertFalse(applied);
+		verify(productProjectionRepository, times(1)).saveAndFlush(any(ProductProjection.class));
+	}
+	
+	private static ProductChangeEvent event(final long version) {
+		return ProductChangeEvent.builder()
+				.productId(1)
+				.version(version)
+				.productDto(ProductDto.builder().productId(1).productTitle("Laptop").build())
+				.build();
+	}
+	
+	private static ProductProjection projection(final long version) {
+		return ProductProjection.builder()
+				.productId(1)
+				.version(version)
+				.build();
+	}
+	
+}
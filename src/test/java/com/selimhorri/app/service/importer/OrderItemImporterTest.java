@@ -0,0 +1,181 @@
+package com.selimhorri.app.service.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.selimhorri.app.client.OrderClient;
+import com.selimhorri.app.config.importer.ImportProperties;
+import com.selimhorri.app.domain.OrderItem;
+import com.selimhorri.app.dto.response.importer.ImportReport;
+import com.selimhorri.app.exception.wrapper.InvalidRequestException;
+import com.selimhorri.app.repository.OrderItemRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderItemImporter Unit Tests")
+class OrderItemImporterTest {
+
+	@Mock
+	private OrderItemRepository orderItemRepository;
+
+	@Mock
+	private OrderClient orderClient;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	private ImportProperties importProperties;
+	private SimpleMeterRegistry meterRegistry;
+	private OrderItemImporter importer;
+
+	@BeforeEach
+	void setUp() {
+		importProperties = new ImportProperties();
+		importProperties.setChunkSize(2);
+		meterRegistry = new SimpleMeterRegistry();
+		importer = new OrderItemImporter(orderItemRepository, orderClient, transactionManager,
+				new ObjectMapper().registerModule(new JavaTimeModule()), importProperties, meterRegistry);
+		lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+	}
+
+	@Test
+	@DisplayName("Should import CSV in chunks and report invalid rows by line")
+	@SuppressWarnings("unchecked")
+	void testImportCsv_ChunksAndRejects() {
+		// Given
+		InputStream csv = stream("orderId,productId,orderedQuantity\n"
+				+ "1,100,5\n"
+				+ "\n"
+				+ "1,200,1\n"
+				+ "2,abc,1\n"
+				+ "2,300,-1\n"
+				+ ",400,1\n"
+				+ "2,500,\n");
+
+		// When
+		ImportReport report = importer.importAll(csv, OrderItemImporter.Format.CSV);
+
+		// Then
+		assertEquals(6, report.getRowsRead());
+		assertEquals(3, report.getRowsImported());
+		assertEquals(3, report.getRowsRejected());
+		assertEquals(List.of(5L, 6L, 7L), report.getErrors().stream()
+				.map(ImportReport.RowError::getLine)
+				.collect(Collectors.toList()));
+		ArgumentCaptor<List<OrderItem>> chunks = ArgumentCaptor.forClass(List.class);
+		verify(orderItemRepository, times(2)).upsertAll(chunks.capture());
+		assertEquals(100, chunks.getAllValues().get(0).get(0).getProductId());
+		assertEquals(1, chunks.getAllValues().get(0).get(0).getOrderId());
+		assertEquals(500, chunks.getAllValues().get(1).get(0).getProductId());
+		assertEquals(3.0, meterRegistry.get("orderitem.import.rows").tag("outcome", "imported").counter().count());
+	}
+
+	@Test
+	@DisplayName("Should import NDJSON and reject malformed lines")
+	void testImportNdjson() {
+		// Given
+		InputStream ndjson = stream("{\"productId\":100,\"orderId\":1,\"orderedQuantity\":5}\n"
+				+ "{not json\n"
+				+ "{\"productId\":200,\"orderId\":1}\n");
+
+		// When
+		ImportReport report = importer.importAll(ndjson, OrderItemImporter.Format.NDJSON);
+
+		// Then
+		assertEquals(3, report.getRowsRead());
+		assertEquals(2, report.getRowsImported());
+		assertEquals(2, report.getErrors().get(0).getLine());
+		verify(orderItemRepository, times(1)).upsertAll(anyCollection());
+	}
+
+	@Test
+	@DisplayName("Should retry a failed chunk row by row and keep the good rows")
+	void testImport_FailedChunkRetriedRowByRow() {
+		// Given
+		OrderItem bad = OrderItem.builder().productId(200).orderId(1).orderedQuantity(1).build();
+		when(orderItemRepository.upsertAll(anyCollection())).thenThrow(new DataIntegrityViolationException("boom"));
+		when(orderItemRepository.upsert(any(OrderItem.class))).thenReturn(1);
+		when(orderItemRepository.upsert(bad)).thenThrow(new DataIntegrityViolationException("bad row"));
+
+		// When
+		ImportReport report = importer.importAll(stream("100,1,5\n200,1,1\n"), OrderItemImporter.Format.CSV);
+
+		// Then
+		assertEquals(1, report.getRowsImported());
+		assertEquals(1, report.getRowsRejected());
+		assertEquals(2, report.getErrors().get(0).getLine());
+		assertEquals("bad row", report.getErrors().get(0).getMessage());
+		verify(orderClient, times(1)).evict(1);
+	}
+
+	@Test
+	@DisplayName("Should count every rejected row but list only the first ones")
+	void testImport_ErrorsTruncated() {
+		// Given
+		importProperties.setMaxReportedErrors(1);
+
+		// When
+		ImportReport report = importer.importAll(stream("1,x,1\n1,y,1\n"), OrderItemImporter.Format.CSV);
+
+		// Then
+		assertEquals(2, report.getRowsRead());
+		assertEquals(2, report.getRowsRejected());
+		assertEquals(1, report.getErrors().size());
+		assertTrue(report.isErrorsTruncated());
+	}
+
+	@Test
+	@DisplayName("Should find the header after a BOM and leading blank lines")
+	@SuppressWarnings("unchecked")
+	void testImport_HeaderAfterBomAndBlankLines() {
+		// When
+		ImportReport report = importer.importAll(stream("\uFEFF\n\norder_id,product_id,ordered_quantity\n1,100,5\n"),
+				OrderItemImporter.Format.CSV);
+
+		// Then
+		assertEquals(1, report.getRowsRead());
+		assertEquals(1, report.getRowsImported());
+		ArgumentCaptor<List<OrderItem>> chunks = ArgumentCaptor.forClass(List.class);
+		verify(orderItemRepository).upsertAll(chunks.capture());
+		assertEquals(100, chunks.getValue().get(0).getProductId());
+	}
+
+	@Test
+	@DisplayName("Should refuse a CSV header without the required columns")
+	void testImport_InvalidHeader() {
+		assertThrows(InvalidRequestException.class,
+				() -> importer.importAll(stream("orderId,quantity\n1,5\n"), OrderItemImporter.Format.CSV));
+	}
+
+	private static InputStream stream(final String body) {
+		return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+	}
+
+}